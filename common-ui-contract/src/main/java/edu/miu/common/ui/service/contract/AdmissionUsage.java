@@ -0,0 +1,28 @@
+package edu.miu.common.ui.service.contract;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdmissionUsage {
+	
+	private long budget; // Cells (rows x columns) the node processes at the same time
+	
+	private long inUse; // Cells of the requests running now
+	
+	private int running;
+	
+	private int queued;
+	
+	private long admitted; // Requests admitted since startup, including the ones below the minimum cost
+	
+	private long rejected; // Requests answered with 429 since startup
+	
+	private int queuedUsers; // Users with at least one queued request, users themselves are not identified
+	
+	private int longestUserQueue; // Queued requests of the user waiting with the most, at most ui.admission.max-queued-per-user
+
+}
@@ -0,0 +1,23 @@
+package edu.miu.common.ui.service.contract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ImportResult {
+	
+	private String importName;
+	
+	private String filename;
+	
+	private List<String> headers = new ArrayList<>(); // Header texts of the file, blank headers are named after their column
+	
+	private long rowCount; // Data rows handed to the application, blank rows are skipped
+	
+	private int batchCount;
+	
+	private TableModel preview; // The first rows of the file, up to ui.importing.preview-rows
+
+}
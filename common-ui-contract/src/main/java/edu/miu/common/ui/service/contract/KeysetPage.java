@@ -0,0 +1,26 @@
+package edu.miu.common.ui.service.contract;
+
+import java.util.Objects;
+
+import lombok.Data;
+
+@Data
+public class KeysetPage {
+	
+	private int size = 20;
+	
+	private String sort = "id,desc"; // Sort sent back with every link, e.g. "createdOn,desc"
+	
+	private String previousCursor; // Opaque token of the first row shown, null on the first page
+	
+	private String nextCursor; // Opaque token of the last row shown, null on the last page
+	
+	public boolean hasPrevious() {
+		return Objects.nonNull(previousCursor) && !previousCursor.isBlank();
+	}
+	
+	public boolean hasNext() {
+		return Objects.nonNull(nextCursor) && !nextCursor.isBlank();
+	}
+
+}
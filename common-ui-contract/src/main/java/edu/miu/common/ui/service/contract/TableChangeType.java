@@ -0,0 +1,5 @@
+package edu.miu.common.ui.service.contract;
+
+public enum TableChangeType {
+	INSERT, UPDATE, DELETE
+}
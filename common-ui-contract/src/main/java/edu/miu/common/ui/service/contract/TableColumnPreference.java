@@ -0,0 +1,13 @@
+package edu.miu.common.ui.service.contract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class TableColumnPreference {
+	
+	private List<String> visibleColumns = new ArrayList<>(); // Attribute names of the columns checked in the "Columns" dropdown
+
+}
@@ -0,0 +1,21 @@
+package edu.miu.common.ui.service.contract;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableRowChange {
+	
+	private TableChangeType type;
+	
+	private String rowId; // Value of the row id attribute configured for the live table
+	
+	private Map<String, String> values = new HashMap<>(); // Display values by attribute name, empty for deletes
+
+}
@@ -0,0 +1,21 @@
+package edu.miu.common.ui.service.contract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableSearchResult {
+	
+	private String query;
+	
+	private int total; // Number of matching rows, can be greater than the row ids returned
+	
+	private List<String> rowIds = new ArrayList<>(); // Row id attribute values of the first matches
+
+}
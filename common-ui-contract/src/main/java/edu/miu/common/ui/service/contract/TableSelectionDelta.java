@@ -0,0 +1,19 @@
+package edu.miu.common.ui.service.contract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class TableSelectionDelta {
+	
+	private Boolean selectAll; // True selects every row matching the filter, false clears the selection, null keeps it
+	
+	private String filter; // Filter of the rows the select all applies to, e.g. the current search query
+	
+	private List<Long> selected = new ArrayList<>(); // Row ids checked since the last sync
+	
+	private List<Long> deselected = new ArrayList<>(); // Row ids unchecked since the last sync
+
+}
@@ -0,0 +1,18 @@
+package edu.miu.common.ui.service.contract;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableSelectionState {
+	
+	private boolean allMatching; // Every row matching the filter is selected except the excluded ones
+	
+	private String filter;
+	
+	private long explicitCount; // Selected row ids, or excluded ones when all matching rows are selected
+
+}
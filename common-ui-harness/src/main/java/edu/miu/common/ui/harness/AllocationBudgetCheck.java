@@ -0,0 +1,398 @@
+package edu.miu.common.ui.harness;
+
+import edu.miu.common.ui.builders.StandardLayoutBuilder;
+import edu.miu.common.ui.builders.TableLayoutBuilder;
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import edu.miu.common.ui.utils.CommonUtils;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/* Measures the memory the library allocates to render the layouts and to export rows, and fails when a measurement
+    exceeds its budget in allocation-budgets.properties. The harness is started in the same JVM on a random port and
+    every request is sent one at a time from the main thread, so the bytes allocated by every other thread, as counted
+    by the ThreadMXBean, are the cost of the request on the server: the Tomcat worker, the export workers and the
+    thread streaming the export.
+
+    Tables and exports are measured at two dataset sizes, the difference gives the cost of one row and the rest the
+    fixed cost of the page, so a change to the templates or to CommonUtils shows up per row and a change to the
+    builders per page. The median of the measured requests is kept, after warm-up requests that let the JIT settle.
+
+    Every scenario is also recorded with JFR allocation sampling, the report lists the code allocating the most so a
+    regression points at its cause. The report and the recordings are written to the report directory, along with the
+    measurements in the format of the budgets file to compare two runs with a plain diff.
+
+    E.g. mvn -Pharness,allocation-budgets -pl common-ui-harness -am verify
+         java -cp <harness classpath> edu.miu.common.ui.harness.AllocationBudgetCheck rows=100,1000
+
+    Arguments, all optional:
+        budgets   the allocation-budgets.properties of the harness, or a file
+        report    target/allocation-budgets
+        rows      100,1000 (the two dataset sizes of the tables and exports)
+        requests  30 (measured requests per scenario and size)
+        warmup    300 (requests sent before measuring)
+        sites     8 (allocation sites listed per scenario)
+ */
+public class AllocationBudgetCheck {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "budgets", "",
+            "report", "target/allocation-budgets",
+            "rows", "100,1000",
+            "requests", "30",
+            "warmup", "300",
+            "sites", "8");
+
+    private static final String BUDGETS_RESOURCE = "allocation-budgets.properties";
+
+    private static final int INITIATE_DEFAULTS_CALLS = 10_000;
+
+    private static final String LIBRARY_PACKAGE = "edu.miu.common.ui.";
+
+    private static final String HARNESS_PACKAGE = "edu.miu.common.ui.harness.";
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final ConfigurableApplicationContext context;
+
+    private final String baseUrl;
+
+    private final Path reportDirectory;
+
+    private final int requests;
+
+    private final int warmup;
+
+    private final int sites;
+
+    private final Map<String, Double> measurements = new LinkedHashMap<>();
+
+    private final Map<String, List<String>> allocationSites = new LinkedHashMap<>();
+
+    AllocationBudgetCheck(ConfigurableApplicationContext context, Path reportDirectory, int requests, int warmup, int sites) {
+        this.context = context;
+        this.baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        this.reportDirectory = reportDirectory;
+        this.requests = requests;
+        this.warmup = warmup;
+        this.sites = sites;
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            if (option.length != 2 || !DEFAULTS.containsKey(option[0])) {
+                throw new IllegalArgumentException("Unknown argument: " + arg + ", expected one of " + DEFAULTS.keySet());
+            }
+            options.put(option[0], option[1]);
+        }
+        Properties budgets = budgets(options.get("budgets"));
+        Path reportDirectory = Files.createDirectories(Path.of(options.get("report")));
+        int[] rows = Arrays.stream(options.get("rows").split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        if (rows.length != 2 || rows[0] >= rows[1]) {
+            throw new IllegalArgumentException("rows must be two increasing dataset sizes: " + options.get("rows"));
+        }
+
+        // Cached exports and admission waits would hide the cost of generating an export
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HarnessApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--server.port=0",
+                        "--logging.level.edu.miu.common.ui=WARN",
+                        "--ui.export-cache.enabled=false",
+                        "--ui.admission.enabled=false");
+        int failures;
+        try {
+            AllocationBudgetCheck check = new AllocationBudgetCheck(context, reportDirectory,
+                    Integer.parseInt(options.get("requests")), Integer.parseInt(options.get("warmup")),
+                    Integer.parseInt(options.get("sites")));
+            check.measureInitiateDefaults();
+            check.measurePage("standard", "/harness/standard?rows=10");
+            check.measureRows("table", size -> "/harness/table?rows=" + size, rows);
+            check.measureRows("compiled-table", size -> "/harness/table?compiled=true&rows=" + size, rows);
+            check.measureRows("export", size -> "/export", rows);
+            failures = check.report(budgets);
+        } finally {
+            context.close();
+        }
+        System.exit(failures > 0 ? 1 : 0);
+    }
+
+    // Builders are created directly, initiateDefaults only needs the constructor arguments
+    void measureInitiateDefaults() throws IOException {
+        CommonUtils commonUtils = context.getBean(CommonUtils.class);
+        CommonUIConfiguration commonUIConfiguration = context.getBean(CommonUIConfiguration.class);
+        StandardLayoutBuilder standardLayoutBuilder = new StandardLayoutBuilder(commonUtils, commonUIConfiguration);
+        TableLayoutBuilder tableLayoutBuilder = new TableLayoutBuilder(commonUtils, commonUIConfiguration);
+
+        try (Recording recording = startRecording()) {
+            for (int call = 0; call < INITIATE_DEFAULTS_CALLS; call++) {
+                standardLayoutBuilder.initiateDefaults();
+                tableLayoutBuilder.initiateDefaults();
+            }
+            long start = threads.getCurrentThreadAllocatedBytes();
+            for (int call = 0; call < INITIATE_DEFAULTS_CALLS; call++) {
+                standardLayoutBuilder.initiateDefaults();
+            }
+            long standard = threads.getCurrentThreadAllocatedBytes();
+            for (int call = 0; call < INITIATE_DEFAULTS_CALLS; call++) {
+                tableLayoutBuilder.initiateDefaults();
+            }
+            long table = threads.getCurrentThreadAllocatedBytes();
+            measurements.put("initiate-defaults.standard.bytes-per-call", (double) (standard - start) / INITIATE_DEFAULTS_CALLS);
+            measurements.put("initiate-defaults.table.bytes-per-call", (double) (table - standard) / INITIATE_DEFAULTS_CALLS);
+            stopRecording(recording, "initiate-defaults");
+        }
+    }
+
+    void measurePage(String scenario, String path) throws IOException {
+        HarnessRequest request = new HarnessRequest(path, null);
+        send(request, warmup);
+        try (Recording recording = startRecording()) {
+            Sample sample = send(request, requests);
+            measurements.put(scenario + ".bytes-per-request", sample.bytes());
+            measurements.put(scenario + ".p50-millis", sample.millis());
+            stopRecording(recording, scenario);
+        }
+    }
+
+    void measureRows(String scenario, PathOfSize path, int[] rows) throws IOException {
+        boolean export = "export".equals(scenario);
+        HarnessRequest small = new HarnessRequest(path.of(rows[0]), export ? fetch("/harness/export-payload?rows=" + rows[0]) : null);
+        HarnessRequest large = new HarnessRequest(path.of(rows[1]), export ? fetch("/harness/export-payload?rows=" + rows[1]) : null);
+        send(small, warmup);
+        send(large, Math.max(1, warmup / 10));
+
+        try (Recording recording = startRecording()) {
+            Sample smallSample = send(small, requests);
+            Sample largeSample = send(large, requests);
+            double perRow = (largeSample.bytes() - smallSample.bytes()) / (rows[1] - rows[0]);
+            measurements.put(scenario + ".bytes-per-row", perRow);
+            measurements.put(scenario + ".bytes-per-request", smallSample.bytes() - perRow * rows[0]);
+            measurements.put(scenario + ".p50-millis", largeSample.millis());
+            stopRecording(recording, scenario);
+        }
+    }
+
+    // Median bytes allocated by the server and median latency of the requests
+    private Sample send(HarnessRequest request, int count) throws IOException {
+        double[] bytes = new double[count];
+        double[] millis = new double[count];
+        for (int i = 0; i < count; i++) {
+            long allocated = allocatedByOtherThreads();
+            long sent = System.nanoTime();
+            request.send(baseUrl);
+            millis[i] = (System.nanoTime() - sent) / 1_000_000.0;
+            bytes[i] = allocatedByOtherThreads() - allocated;
+        }
+        return new Sample(median(bytes), median(millis));
+    }
+
+    private long allocatedByOtherThreads() {
+        long[] ids = threads.getAllThreadIds();
+        long[] allocated = threads.getThreadAllocatedBytes(ids);
+        long self = Thread.currentThread().threadId();
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != self && allocated[i] > 0) {
+                total += allocated[i];
+            }
+        }
+        return total;
+    }
+
+    private Recording startRecording() {
+        Recording recording = new Recording();
+        recording.enable("jdk.ObjectAllocationSample").withStackTrace().with("throttle", "10000/s");
+        recording.start();
+        return recording;
+    }
+
+    /* The sampled allocations are weighted by the bytes they stand for and grouped by the first frame outside the JDK,
+        with the closest frame of the library when it is further down the stack. Allocations of the main thread are
+        those of the check itself, except for the initiateDefaults calls.
+     */
+    private void stopRecording(Recording recording, String scenario) throws IOException {
+        recording.stop();
+        Path file = reportDirectory.resolve(scenario + ".jfr");
+        recording.dump(file);
+
+        boolean ownThread = "initiate-defaults".equals(scenario);
+        long self = Thread.currentThread().threadId();
+        Map<String, Long> weights = new HashMap<>();
+        long total = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getStackTrace() == null || event.getThread() == null
+                    || (event.getThread().getJavaThreadId() == self) != ownThread) {
+                continue;
+            }
+            long weight = event.getLong("weight");
+            weights.merge(allocationSite(event), weight, Long::sum);
+            total += weight;
+        }
+        long sampled = Math.max(total, 1);
+        allocationSites.put(scenario, weights.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(sites)
+                .map(site -> String.format("%5.1f%%  %s", 100.0 * site.getValue() / sampled, site.getKey()))
+                .toList());
+    }
+
+    private static String allocationSite(RecordedEvent event) {
+        String site = null;
+        String library = null;
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            // Lambdas are hidden classes named after their address, their enclosing method is the next frame
+            if (type.contains("$$Lambda")) {
+                continue;
+            }
+            if (site == null && !type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                site = frame(frame);
+            }
+            if (type.startsWith(LIBRARY_PACKAGE) && !type.startsWith(HARNESS_PACKAGE)) {
+                library = frame(frame);
+                break;
+            }
+        }
+        String allocated = " (" + event.getClass("objectClass").getName() + ")";
+        if (site == null) {
+            return "JDK" + allocated;
+        }
+        return site + allocated + (library == null || library.equals(site) ? "" : " <- " + library);
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    // Prints and writes the report, the number of measurements over budget is returned
+    int report(Properties budgets) throws IOException {
+        StringWriter text = new StringWriter();
+        PrintWriter report = new PrintWriter(text);
+        report.printf("Common UI allocation budgets, %d measured requests per scenario after %d warm-up requests%n%n", requests, warmup);
+        report.printf("%-45s %14s %14s %7s  %s%n", "measurement", "measured", "budget", "used", "status");
+
+        List<String> failed = new ArrayList<>();
+        measurements.forEach((name, measured) -> {
+            String budget = budgets.getProperty(name);
+            if (budget == null) {
+                report.printf("%-45s %,14.0f %14s %7s  %s%n", name, measured, "-", "-", "no budget");
+                return;
+            }
+            double limit = Double.parseDouble(budget.trim());
+            boolean over = measured > limit;
+            if (over) {
+                failed.add(name);
+            }
+            report.printf("%-45s %,14.0f %,14.0f %6.0f%%  %s%n", name, measured, limit, 100 * measured / limit, over ? "OVER BUDGET" : "ok");
+        });
+
+        report.printf("%nLargest allocation sites, sampled by JFR (%s/<scenario>.jfr)%n", reportDirectory);
+        allocationSites.forEach((scenario, scenarioSites) -> {
+            boolean scenarioFailed = failed.stream().anyMatch(name -> name.startsWith(scenario + "."));
+            report.printf("%n%s%s%n", scenario, scenarioFailed ? "  <- over budget" : "");
+            scenarioSites.forEach(site -> report.printf("    %s%n", site));
+        });
+        report.printf("%n%s%n", failed.isEmpty() ? "Every measurement is within its budget"
+                : failed.size() + " measurements over budget: " + String.join(", ", failed));
+        report.flush();
+
+        System.out.print(text);
+        Files.writeString(reportDirectory.resolve("report.txt"), text.toString());
+        StringBuilder measured = new StringBuilder();
+        new TreeMap<>(measurements).forEach((name, value) -> measured.append(name).append('=').append(Math.round(value)).append('\n'));
+        Files.writeString(reportDirectory.resolve("measured.properties"), measured);
+        return failed.size();
+    }
+
+    private static Properties budgets(String location) throws IOException {
+        Properties budgets = new Properties();
+        try (InputStream input = location.isEmpty()
+                ? AllocationBudgetCheck.class.getClassLoader().getResourceAsStream(BUDGETS_RESOURCE)
+                : Files.newInputStream(Path.of(location))) {
+            if (input == null) {
+                throw new IOException(BUDGETS_RESOURCE + " not found on the classpath");
+            }
+            budgets.load(input);
+        }
+        return budgets;
+    }
+
+    private String fetch(String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+        try (InputStream input = connection.getInputStream()) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    @FunctionalInterface
+    interface PathOfSize {
+
+        String of(int rows);
+
+    }
+
+    record Sample(double bytes, double millis) {
+    }
+
+    // A GET, or a POST of the body when there is one, read to the end so the whole response is generated
+    record HarnessRequest(String path, String body) {
+
+        void send(String baseUrl) throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+            connection.setRequestProperty("Accept-Encoding", "identity");
+            if (body != null) {
+                byte[] content = body.getBytes(StandardCharsets.UTF_8);
+                connection.setRequestMethod("POST");
+                connection.setRequestProperty("Content-Type", "application/json");
+                connection.setDoOutput(true);
+                connection.setFixedLengthStreamingMode(content.length);
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(content);
+                }
+            }
+            if (connection.getResponseCode() >= 400) {
+                throw new IOException("Request to " + path + " failed with status " + connection.getResponseCode());
+            }
+            try (InputStream input = connection.getInputStream()) {
+                input.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+
+    }
+
+}
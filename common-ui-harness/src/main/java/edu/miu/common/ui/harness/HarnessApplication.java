@@ -0,0 +1,20 @@
+package edu.miu.common.ui.harness;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/* Self-contained application exercising the UI library with synthetic data, used to measure performance changes end
+    to end. Only the UI packages are scanned, so the harness starts without any of the services of the applications.
+
+    E.g. mvn -Pharness -pl common-ui-harness spring-boot:run
+ */
+@SpringBootApplication(scanBasePackages = "edu.miu.common.ui")
+@ImportRuntimeHints(HarnessRuntimeHints.class)
+public class HarnessApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(HarnessApplication.class, args);
+    }
+
+}
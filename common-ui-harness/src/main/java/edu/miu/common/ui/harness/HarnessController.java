@@ -0,0 +1,135 @@
+package edu.miu.common.ui.harness;
+
+import edu.miu.common.ui.builders.StandardLayoutBuilder;
+import edu.miu.common.ui.builders.TableLayoutBuilder;
+import edu.miu.common.ui.highlight.HighlightOperator;
+import edu.miu.common.ui.highlight.RowHighlightRule;
+import edu.miu.common.ui.service.contract.ExportExcel;
+import edu.miu.common.ui.service.contract.TableColor;
+import edu.miu.common.ui.utils.CommonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/* Scenarios measured by the LoadDriver, every one of them takes the dataset size as the rows parameter.
+    Export is measured through the /export endpoint of the library, /harness/export-payload builds its request body.
+    The table is rendered by table.html or by its CompiledTable with the compiled parameter, features turns on every
+    column option of the table fragment for the TableEquivalenceCheck.
+ */
+@Slf4j
+@Controller
+@RequestMapping("/harness")
+public class HarnessController {
+
+    private final StandardLayoutBuilder standardLayoutBuilder;
+
+    private final TableLayoutBuilder tableLayoutBuilder;
+
+    private final SyntheticDataset syntheticDataset;
+
+    private final CommonUtils commonUtils;
+
+    public HarnessController(StandardLayoutBuilder standardLayoutBuilder, TableLayoutBuilder tableLayoutBuilder,
+                             SyntheticDataset syntheticDataset, CommonUtils commonUtils) {
+        this.standardLayoutBuilder = standardLayoutBuilder;
+        this.tableLayoutBuilder = tableLayoutBuilder;
+        this.syntheticDataset = syntheticDataset;
+        this.commonUtils = commonUtils;
+    }
+
+    @GetMapping("/standard")
+    public String standard(Model model, @RequestParam(defaultValue = "10") int rows) {
+        standardLayoutBuilder.initiateDefaults()
+                .withHeadTitle("Harness")
+                .withMainTitle("Standard Layout")
+                .withSearchBoxPath("@{/harness/table}")
+                .withBreadCrumbList(List.of("home", "standard"))
+                .build(model);
+        model.addAttribute("harnessRows", syntheticDataset.rows(rows));
+        return "harness/standard";
+    }
+
+    @GetMapping("/table")
+    public String table(Model model, @RequestParam(defaultValue = "100") int rows,
+                        @RequestParam(required = false) Boolean compiled,
+                        @RequestParam(defaultValue = "false") boolean features) {
+        tableLayoutBuilder.initiateDefaults()
+                .withHeadTitle("Harness")
+                .withMainTitle("Table Layout")
+                .withSearchBoxPath("@{/harness/table}")
+                .withBreadCrumbList(List.of("home", "table"))
+                .withTableList(syntheticDataset.rows(rows))
+                .withAttributeNames(SyntheticDataset.ATTRIBUTE_NAMES)
+                .withHeaderNames(withAction(SyntheticDataset.HEADER_NAMES))
+                .withPaths(List.of("/harness/standard"))
+                .withPathVariableName("rows")
+                .withTableListAttribute("id")
+                .withRowIdAttribute("id")
+                .withColumnTextCenterList(List.of("credits", "gpa"))
+                .withFileName("harness.xlsx");
+        if (compiled != null) {
+            tableLayoutBuilder.withCompiledTable(compiled);
+        }
+        if (features) {
+            withEveryFeature(rows);
+        }
+        tableLayoutBuilder.build(model);
+        return CommonUtils.TABLE_LAYOUT;
+    }
+
+    // Same shape as the body the export button of the table sends
+    @GetMapping("/export-payload")
+    public ResponseEntity<ExportExcel> exportPayload(@RequestParam(defaultValue = "1000") int rows) {
+        List<Map<String, String>> tableData = new ArrayList<>(rows);
+        syntheticDataset.rows(rows).forEach(row -> {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < SyntheticDataset.ATTRIBUTE_NAMES.size(); i++) {
+                values.put(SyntheticDataset.HEADER_NAMES.get(i), commonUtils.getTextByHeader(row, SyntheticDataset.ATTRIBUTE_NAMES.get(i)));
+            }
+            tableData.add(values);
+        });
+        ExportExcel exportExcel = new ExportExcel();
+        exportExcel.setFilename("harness.xlsx");
+        exportExcel.setTableData(tableData);
+        return ResponseEntity.ok(exportExcel);
+    }
+
+    // Links, absolute links, selection, live updates, highlight rules and header options, with values to escape
+    private void withEveryFeature(int rows) {
+        Map<String, String> absolutePathLinks = new LinkedHashMap<>();
+        syntheticDataset.rows(rows).stream().limit(10)
+                .forEach(row -> absolutePathLinks.put(row.getEmail(), "mailto:" + row.getEmail() + "?subject=A&body=<b>"));
+        tableLayoutBuilder
+                .withColumnLinkEnable(true)
+                .withHeaderColumnName("lastName")
+                .withPathColumnName("/harness/standard")
+                .withColumnParamVariable("name")
+                .withRowHyperlinkMap(Map.of("lastName", "Profile & more"))
+                .withAbsolutePathName("email")
+                .withAbsolutePathLinks(absolutePathLinks)
+                .withNonSortable(List.of("Email", "Action"))
+                .withHeaderColumnTextCenterList(List.of("Credits", "GPA"))
+                .withPaths(List.of("/harness/standard", ""))
+                .withLiveTable("harness", "id")
+                .withSelection("harness", "id", "department=\"Physics\"")
+                .withRowHighlightRule(RowHighlightRule.of("department", HighlightOperator.EQ, "Physics", TableColor.BLUE)
+                        .withLegend("Physics <lab>"))
+                .withRowHighlightRule(RowHighlightRule.of("credits", HighlightOperator.LT, "10", "table-warning"));
+    }
+
+    private List<String> withAction(List<String> headerNames) {
+        List<String> names = new ArrayList<>(headerNames);
+        names.add("Action");
+        return names;
+    }
+
+}
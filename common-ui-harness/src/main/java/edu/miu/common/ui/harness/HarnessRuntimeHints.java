@@ -0,0 +1,15 @@
+package edu.miu.common.ui.harness;
+
+import edu.miu.common.ui.config.CommonUIRuntimeHints;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+// Rows rendered by the table layout are read through their fields, which native images only allow when registered
+public class HarnessRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        CommonUIRuntimeHints.registerTableEntity(hints, SyntheticRow.class);
+    }
+
+}
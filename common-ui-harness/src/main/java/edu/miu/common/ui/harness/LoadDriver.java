@@ -0,0 +1,196 @@
+package edu.miu.common.ui.harness;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/* Drives the harness scenarios with a fixed number of concurrent clients and reports the latency percentiles and the
+    throughput of every scenario. It only depends on the JDK, so it runs straight from the compiled classes while the
+    harness is running in another terminal.
+
+    E.g. java -cp common-ui-harness/target/classes edu.miu.common.ui.harness.LoadDriver rows=100,1000 concurrency=32
+
+    Arguments, all optional:
+        base-url     http://localhost:8080
+        scenarios    standard,table,export (compiled-table renders the table with its CompiledTable)
+        rows         100,1000 (every scenario runs once per dataset size)
+        concurrency  16
+        requests     1000 (measured requests per scenario)
+        warmup       200 (requests sent before measuring, to let the JIT and the caches settle)
+ */
+public class LoadDriver {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "base-url", "http://localhost:8080",
+            "scenarios", "standard,table,export",
+            "rows", "100,1000",
+            "concurrency", "16",
+            "requests", "1000",
+            "warmup", "200");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final String baseUrl;
+
+    private final int concurrency;
+
+    private final int requests;
+
+    private final int warmup;
+
+    LoadDriver(String baseUrl, int concurrency, int requests, int warmup) {
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.requests = requests;
+        this.warmup = warmup;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            if (option.length != 2 || !DEFAULTS.containsKey(option[0])) {
+                throw new IllegalArgumentException("Unknown argument: " + arg + ", expected one of " + DEFAULTS.keySet());
+            }
+            options.put(option[0], option[1]);
+        }
+
+        LoadDriver driver = new LoadDriver(options.get("base-url"), Integer.parseInt(options.get("concurrency")),
+                Integer.parseInt(options.get("requests")), Integer.parseInt(options.get("warmup")));
+
+        List<ScenarioResult> results = new ArrayList<>();
+        for (String rows : options.get("rows").split(",")) {
+            for (String scenario : options.get("scenarios").split(",")) {
+                results.add(driver.run(scenario.trim(), Integer.parseInt(rows.trim())));
+            }
+        }
+        printReport(options, results);
+    }
+
+    ScenarioResult run(String scenario, int rows) throws IOException, InterruptedException {
+        Supplier<HttpRequest> request = switch (scenario) {
+            case "standard" -> get("/harness/standard?rows=" + rows);
+            case "table" -> get("/harness/table?rows=" + rows);
+            case "compiled-table" -> get("/harness/table?rows=" + rows + "&compiled=true");
+            case "export" -> post("/export", fetch("/harness/export-payload?rows=" + rows));
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+        execute(request, warmup);
+        return execute(request, requests).named(scenario, rows);
+    }
+
+    // Every client takes the next request number until all of them are sent, latencies are kept in sending order
+    private ScenarioResult execute(Supplier<HttpRequest> request, int count) throws InterruptedException {
+        long[] latencies = new long[count];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.execute(() -> {
+                    for (int n = next.getAndIncrement(); n < count; n = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(request.get(), HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                            bytes.addAndGet(response.body().length);
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies[n] = System.nanoTime() - sent;
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new ScenarioResult(null, 0, latencies, elapsed, errors.get(), bytes.get());
+    }
+
+    private Supplier<HttpRequest> get(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "text/html")
+                .header("Accept-Encoding", "identity")
+                .GET()
+                .build();
+        return () -> request;
+    }
+
+    private Supplier<HttpRequest> post(String path, String body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return () -> request;
+    }
+
+    private String fetch(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Request to " + path + " failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static void printReport(Map<String, String> options, List<ScenarioResult> results) {
+        System.out.printf("%nCommon UI load test against %s, %s clients, %s requests per scenario after %s warm-up requests%n%n",
+                options.get("base-url"), options.get("concurrency"), options.get("requests"), options.get("warmup"));
+        System.out.printf("%-14s %8s %10s %10s %10s %12s %10s %8s%n", "scenario", "rows", "p50 ms", "p99 ms", "max ms", "req/s", "KB/req", "errors");
+        results.forEach(result -> System.out.printf("%-14s %8d %10.2f %10.2f %10.2f %12.1f %10.1f %8d%n",
+                result.scenario(), result.rows(), result.percentile(50), result.percentile(99), result.percentile(100),
+                result.throughput(), result.kilobytesPerRequest(), result.errors()));
+    }
+
+    record ScenarioResult(String scenario, int rows, long[] latencies, long elapsedNanos, int errors, long bytes) {
+
+        ScenarioResult named(String scenario, int rows) {
+            return new ScenarioResult(scenario, rows, latencies, elapsedNanos, errors, bytes);
+        }
+
+        // Nearest rank percentile in milliseconds
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+        }
+
+        double throughput() {
+            return latencies.length / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double kilobytesPerRequest() {
+            return latencies.length == 0 ? 0 : bytes / 1024.0 / latencies.length;
+        }
+
+    }
+
+}
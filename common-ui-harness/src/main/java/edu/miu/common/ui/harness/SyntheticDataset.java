@@ -0,0 +1,67 @@
+package edu.miu.common.ui.harness;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Generates the rows served by the harness. The seed is the row count, so every run of a scenario renders exactly the
+    same data, and datasets are generated once per size so the measurements only include the library.
+ */
+@Component
+public class SyntheticDataset {
+
+    public static final List<String> ATTRIBUTE_NAMES = List.of("id", "firstName", "lastName", "email", "department", "enrolledOn", "credits", "gpa");
+
+    public static final List<String> HEADER_NAMES = List.of("Id", "First Name", "Last Name", "Email", "Department", "Enrolled On", "Credits", "GPA");
+
+    private static final String[] FIRST_NAMES = {"Abebe", "Emily", "Zhang", "María", "Olusegun", "Priya", "Jonas", "Amara", "Luca", "Nguyen"};
+
+    private static final String[] LAST_NAMES = {"Tesfaye", "Johnson", "Wei", "García", "Adeyemi", "Sharma", "Müller", "Okafor", "Rossi", "Tran"};
+
+    private static final String[] DEPARTMENTS = {"Computer Science", "Business Administration", "Physics", "Mathematics", "Sustainable Living"};
+
+    private static final LocalDateTime FIRST_ENROLLMENT = LocalDateTime.of(2015, 1, 5, 9, 0);
+
+    private final int maxRows;
+
+    private final Map<Integer, List<SyntheticRow>> datasets = new ConcurrentHashMap<>();
+
+    public SyntheticDataset(@Value("${harness.max-rows:200000}") int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    public List<SyntheticRow> rows(int size) {
+        if (size < 0 || size > maxRows) {
+            throw new IllegalArgumentException("Dataset size must be between 0 and " + maxRows + ": " + size);
+        }
+        return datasets.computeIfAbsent(size, this::generate);
+    }
+
+    private List<SyntheticRow> generate(int size) {
+        Random random = new Random(size);
+        List<SyntheticRow> rows = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            rows.add(new SyntheticRow(
+                    id,
+                    firstName,
+                    lastName,
+                    (firstName + "." + lastName + id + "@miu.edu").toLowerCase(),
+                    DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+                    FIRST_ENROLLMENT.plusDays(random.nextInt(3650)).plusMinutes(random.nextInt(600)),
+                    random.nextInt(160),
+                    BigDecimal.valueOf(2 + random.nextDouble() * 2).setScale(2, RoundingMode.HALF_UP)));
+        }
+        return List.copyOf(rows);
+    }
+
+}
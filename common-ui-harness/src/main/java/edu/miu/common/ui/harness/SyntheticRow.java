@@ -0,0 +1,29 @@
+package edu.miu.common.ui.harness;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class SyntheticRow {
+
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private String department;
+
+    private LocalDateTime enrolledOn;
+
+    private Integer credits;
+
+    private BigDecimal gpa;
+
+}
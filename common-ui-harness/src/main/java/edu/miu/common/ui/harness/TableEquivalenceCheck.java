@@ -0,0 +1,205 @@
+package edu.miu.common.ui.harness;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/* Checks that the CompiledTable renders the same table as framework/fragments/table.html. Every dataset size is
+    rendered by both with and without the column features of the harness table, and the table fragments are compared
+    once the whitespace between two tags is removed and the whitespace between the attributes of a tag is reduced to a
+    single space, as the CompiledTable writes them. Whitespace within the text and the attribute values is compared as
+    it is. The check exits with 1 when a table differs.
+
+    Without a base-url the harness is started in the same JVM on a random port, which is how the integration-test
+    phase of the harness runs it, so a change to table.html that CompiledTable does not follow fails the build.
+    With a base-url it runs against a running harness like the LoadDriver.
+
+    E.g. mvn -Pharness -pl common-ui-harness -am verify
+         java -cp common-ui-harness/target/classes edu.miu.common.ui.harness.TableEquivalenceCheck base-url=http://localhost:8080
+
+    Arguments, all optional:
+        base-url  the harness started by the check when empty
+        rows      0,1,100,1000
+ */
+public class TableEquivalenceCheck {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "base-url", "",
+            "rows", "0,1,100,1000");
+
+    private static final String TABLE_START = "<div class=\"table-responsive\"";
+
+    // Characters shown around the first difference
+    private static final int CONTEXT = 160;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final String baseUrl;
+
+    TableEquivalenceCheck(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            if (option.length != 2 || !DEFAULTS.containsKey(option[0])) {
+                throw new IllegalArgumentException("Unknown argument: " + arg + ", expected one of " + DEFAULTS.keySet());
+            }
+            options.put(option[0], option[1]);
+        }
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("base-url");
+        if (baseUrl.isBlank()) {
+            context = new SpringApplicationBuilder(HarnessApplication.class)
+                    .bannerMode(Banner.Mode.OFF)
+                    .run("--server.port=0",
+                            "--logging.level.edu.miu.common.ui=WARN",
+                            "--ui.admission.enabled=false",
+                            "--ui.warmup.enabled=false");
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+
+        int failures = 0;
+        try {
+            TableEquivalenceCheck check = new TableEquivalenceCheck(baseUrl);
+            for (String rows : options.get("rows").split(",")) {
+                for (boolean features : new boolean[]{false, true}) {
+                    if (!check.compare(Integer.parseInt(rows.trim()), features)) {
+                        failures++;
+                    }
+                }
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        if (failures > 0) {
+            System.out.printf("%n%d table renderings differ%n", failures);
+            System.exit(1);
+        }
+        System.out.printf("%nThe compiled tables match table.html%n");
+        System.exit(0);
+    }
+
+    boolean compare(int rows, boolean features) throws IOException, InterruptedException {
+        String path = "/harness/table?rows=" + rows + "&features=" + features;
+        String expected = table(fetch(path + "&compiled=false"));
+        String actual = table(fetch(path + "&compiled=true"));
+
+        int difference = firstDifference(expected, actual);
+        if (difference < 0) {
+            System.out.printf("%-8s rows=%-7d features=%-5s %d characters%n", "match", rows, features, expected.length());
+            return true;
+        }
+        System.out.printf("%-8s rows=%-7d features=%-5s at character %d%n", "DIFFERS", rows, features, difference);
+        System.out.printf("  table.html  ...%s...%n", excerpt(expected, difference));
+        System.out.printf("  compiled    ...%s...%n", excerpt(actual, difference));
+        return false;
+    }
+
+    // The table fragment holds no div of its own, it ends at the first closing div
+    static String table(String page) {
+        int start = page.indexOf(TABLE_START);
+        int end = start < 0 ? -1 : page.indexOf("</div>", start);
+        if (end < 0) {
+            throw new IllegalStateException("No table fragment found in the page");
+        }
+        return normalize(page.substring(start, end + "</div>".length()));
+    }
+
+    // Only the whitespace that is not part of the markup, the table holds no comments, scripts or unquoted attributes
+    static String normalize(String table) {
+        StringBuilder normalized = new StringBuilder(table.length());
+        boolean inTag = false;
+        char quote = 0;
+        int i = 0;
+        while (i < table.length()) {
+            char c = table.charAt(i);
+            if (!inTag && Character.isWhitespace(c)) {
+                int next = skipWhitespace(table, i);
+                // Whitespace alone between two tags
+                if (next < table.length() && table.charAt(next) == '<' && normalized.length() > 0
+                        && normalized.charAt(normalized.length() - 1) == '>') {
+                    i = next;
+                    continue;
+                }
+                normalized.append(table, i, next);
+                i = next;
+                continue;
+            }
+            if (inTag && quote == 0 && Character.isWhitespace(c)) {
+                int next = skipWhitespace(table, i);
+                char following = next < table.length() ? table.charAt(next) : 0;
+                if (following != '>' && following != '/') {
+                    normalized.append(' ');
+                }
+                i = next;
+                continue;
+            }
+            if (c == '<' && !inTag) {
+                inTag = true;
+            } else if (inTag && quote == 0 && (c == '"' || c == '\'')) {
+                quote = c;
+            } else if (inTag && c == quote) {
+                quote = 0;
+            } else if (inTag && quote == 0 && c == '>') {
+                inTag = false;
+            }
+            normalized.append(c);
+            i++;
+        }
+        return normalized.toString();
+    }
+
+    private static int skipWhitespace(String text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int firstDifference(String expected, String actual) {
+        int length = Math.min(expected.length(), actual.length());
+        for (int i = 0; i < length; i++) {
+            if (expected.charAt(i) != actual.charAt(i)) {
+                return i;
+            }
+        }
+        return expected.length() == actual.length() ? -1 : length;
+    }
+
+    private static String excerpt(String table, int position) {
+        return table.substring(Math.max(0, position - CONTEXT / 2), Math.min(table.length(), position + CONTEXT / 2));
+    }
+
+    private String fetch(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "text/html")
+                .header("Accept-Encoding", "identity")
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Request to " + path + " failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+}
@@ -0,0 +1,227 @@
+package edu.miu.common.ui.admission;
+
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import edu.miu.common.ui.service.contract.AdmissionUsage;
+import edu.miu.common.ui.utils.CommonUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/* Admits expensive requests (exports, large tables) against a per-node budget of cells, rows times columns, so a few
+    huge exports can not take all the CPU and heap of the node. Requests below ui.admission.min-cost never wait.
+
+    Waiting requests are queued per user and admitted round robin, one request per user per turn, so a user starting
+    many exports only delays their own. A request that can not be admitted within ui.admission.max-wait-millis, or
+    whose user already has too many queued, is rejected with an AdmissionRejectedException.
+
+    E.g. try (AdmissionControl.Permit permit = admissionControl.acquire(request, rows * columns)) {
+             ... expensive work ...
+         }
+ */
+@Slf4j
+@Component
+public class AdmissionControl {
+
+    private final CommonUIConfiguration.Admission settings;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Users in turn order, served users move to the back
+    private final LinkedHashMap<String, Deque<Waiter>> queues = new LinkedHashMap<>();
+
+    private long inUse;
+
+    private int running;
+
+    private int queued;
+
+    private long admitted;
+
+    private long rejected;
+
+    // Moving average of the time permits are held, the base of the Retry-After estimate
+    private double averageHoldMillis = 1000;
+
+    public AdmissionControl(CommonUIConfiguration commonUIConfiguration) {
+        this.settings = commonUIConfiguration.getAdmission();
+    }
+
+    public Permit acquire(HttpServletRequest request, long cost) {
+        return acquire(CommonUtils.userOf(request), cost);
+    }
+
+    public Permit acquire(String user, long cost) {
+        if (!settings.isEnabled() || cost < settings.getMinCost()) {
+            lock.lock();
+            try {
+                admitted++;
+            } finally {
+                lock.unlock();
+            }
+            return Permit.NONE;
+        }
+
+        // A request larger than the whole budget still runs, alone
+        long charged = Math.min(cost, settings.getBudgetCells());
+        Waiter waiter = new Waiter(charged);
+        lock.lock();
+        try {
+            Deque<Waiter> userQueue = queues.computeIfAbsent(user, key -> new ArrayDeque<>());
+            if (userQueue.size() >= settings.getMaxQueuedPerUser()) {
+                if (userQueue.isEmpty()) {
+                    queues.remove(user);
+                }
+                throw reject("Too many requests waiting for the same user");
+            }
+            userQueue.add(waiter);
+            queued++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            waiter.granted.get(settings.getMaxWaitMillis(), TimeUnit.MILLISECONDS);
+            return new Permit(this, charged);
+        } catch (TimeoutException | InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            lock.lock();
+            try {
+                // Granted while giving up, the permit is used after all
+                if (waiter.granted.isDone()) {
+                    return new Permit(this, charged);
+                }
+                Deque<Waiter> userQueue = queues.get(user);
+                if (userQueue != null && userQueue.remove(waiter)) {
+                    queued--;
+                    if (userQueue.isEmpty()) {
+                        queues.remove(user);
+                    }
+                }
+                throw reject("Request of " + cost + " cells not admitted within " + settings.getMaxWaitMillis() + " ms");
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public AdmissionUsage getUsage() {
+        lock.lock();
+        try {
+            // Only aggregates, the queue keys are session ids or addresses for users that are not authenticated
+            int longestUserQueue = queues.values().stream().mapToInt(Deque::size).max().orElse(0);
+            return new AdmissionUsage(settings.getBudgetCells(), inUse, running, queued, admitted, rejected, queues.size(), longestUserQueue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long charged, long heldMillis) {
+        lock.lock();
+        try {
+            inUse -= charged;
+            running--;
+            averageHoldMillis = averageHoldMillis * 0.8 + heldMillis * 0.2;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Round robin over the users with queued requests, the head request of each user is admitted when it fits
+    private void dispatch() {
+        boolean progress = true;
+        while (progress && !queues.isEmpty()) {
+            progress = false;
+            List<String> served = new ArrayList<>();
+            Iterator<Map.Entry<String, Deque<Waiter>>> iterator = queues.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Deque<Waiter>> entry = iterator.next();
+                Waiter head = entry.getValue().peek();
+                if (head == null || (running > 0 && inUse + head.cost > settings.getBudgetCells())) {
+                    continue;
+                }
+                entry.getValue().poll();
+                queued--;
+                inUse += head.cost;
+                running++;
+                admitted++;
+                head.granted.complete(null);
+                served.add(entry.getKey());
+                progress = true;
+                if (entry.getValue().isEmpty()) {
+                    iterator.remove();
+                }
+            }
+            served.forEach(user -> {
+                Deque<Waiter> userQueue = queues.remove(user);
+                if (userQueue != null) {
+                    queues.put(user, userQueue);
+                }
+            });
+        }
+    }
+
+    private AdmissionRejectedException reject(String message) {
+        rejected++;
+        long retryAfterSeconds = Math.max(1, Math.round(averageHoldMillis / 1000));
+        log.debug("Admission rejected: {}, retry after {} s", message, retryAfterSeconds);
+        return new AdmissionRejectedException(message, retryAfterSeconds);
+    }
+
+    private static final class Waiter {
+
+        private final long cost;
+
+        private final CompletableFuture<Void> granted = new CompletableFuture<>();
+
+        private Waiter(long cost) {
+            this.cost = cost;
+        }
+
+    }
+
+    // Releases the admitted cost when closed, closing it more than once has no effect
+    public static final class Permit implements AutoCloseable {
+
+        static final Permit NONE = new Permit(null, 0);
+
+        private final AdmissionControl admissionControl;
+
+        private final long cost;
+
+        private final long admittedAt = System.currentTimeMillis();
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AdmissionControl admissionControl, long cost) {
+            this.admissionControl = admissionControl;
+            this.cost = cost;
+        }
+
+        @Override
+        public void close() {
+            if (admissionControl != null && released.compareAndSet(false, true)) {
+                admissionControl.release(cost, System.currentTimeMillis() - admittedAt);
+            }
+        }
+
+    }
+
+}
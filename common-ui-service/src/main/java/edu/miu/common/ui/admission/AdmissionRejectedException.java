@@ -0,0 +1,21 @@
+package edu.miu.common.ui.admission;
+
+import lombok.Getter;
+
+import java.io.Serial;
+
+// Thrown when a request can not be admitted within its wait time, answered with 429 and a Retry-After header
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+}
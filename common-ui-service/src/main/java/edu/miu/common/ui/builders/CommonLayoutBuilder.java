@@ -1,18 +1,33 @@
 package edu.miu.common.ui.builders;
 
 import edu.miu.common.ui.config.CommonUIConfiguration;
+import edu.miu.common.ui.dialect.LayoutSlotTagProcessor;
+import edu.miu.common.ui.layout.DeferredAttribute;
+import edu.miu.common.ui.layout.DeferredAttributeResolver;
+import edu.miu.common.ui.layout.LayoutFingerprint;
+import edu.miu.common.ui.layout.LayoutPlanCompiler;
+import edu.miu.common.ui.layout.PartialRenderInterceptor;
 import edu.miu.common.ui.utils.CommonUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Component;
 import org.springframework.ui.Model;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * <h1>CommonLayoutBuilder</h1>
@@ -118,6 +133,21 @@ import java.util.Map;
  *
  *   <dt>{@link #withSearchBoxPath(String)}, {@link #withSearchBoxName(String)}, and {@link #withSearchBoxPlaceHolder(String)}</dt>
  *   <dd>Configures the search box's form action path, name, and placeholder text, each accepting a String.</dd>
+ *
+ *   <dt>{@link #withDataVersion(Object)}</dt>
+ *   <dd>Sets a version or content fingerprint of the data shown by the page, e.g. a last modified timestamp or a row count and max id.</dd>
+ *
+ *   <dt>{@link #withDeferredAttribute(String, Supplier)} and {@link #withDeferredAttribute(String, CompletableFuture)}</dt>
+ *   <dd>Sets any attribute from a slow call. Every deferred attribute is loaded concurrently on virtual threads when the layout is built, the value set before (the default) is the fallback.</dd>
+ *
+ *   <dt>{@link #withDeferredBreadCrumbList(Supplier)}</dt>
+ *   <dd>Deferred version of `withBreadCrumbList`, the names are turned into navigation links once they are loaded.</dd>
+ *
+ *   <dt>{@link #withDeferredDeadline(Duration)}</dt>
+ *   <dd>Overall time the build waits for the deferred attributes, ui.deferred-attributes.deadline-millis by default.</dd>
+ *
+ *   <dt>{@link #checkNotModified(WebRequest)}</dt>
+ *   <dd>Computes a strong ETag from the data version, the layout attributes and the configuration version and answers 304 Not Modified when it matches If-None-Match.</dd>
  * </dl>
  *
  * <h2>Usage</h2>
@@ -140,6 +170,20 @@ import java.util.Map;
  *   // Apply the configuration to a Model
  *   builder.build(model);
  * </code></pre>
+ *
+ * <h2>Conditional GET</h2>
+ * <p>
+ *   Configure the layout and the data version before loading the rows, and return null when the browser copy is still current:
+ * </p>
+ * <pre><code>
+ *   builder.initiateDefaults()
+ *     .withMainTitle("Main Title")
+ *     .withDataVersion(repository.findLastModified());
+ *
+ *   if (builder.checkNotModified(webRequest)) {
+ *     return null; // 304 Not Modified, nothing is extracted or rendered
+ *   }
+ * </code></pre>
  */
 
 @Slf4j
@@ -151,6 +195,14 @@ public abstract class CommonLayoutBuilder<T extends CommonLayoutBuilder<T>> {
     protected final CommonUIConfiguration commonUIConfiguration;
     protected final CommonUtils commonUtils;
 
+    @Autowired
+    private LayoutPlanCompiler layoutPlanCompiler;
+
+    @Autowired
+    private DeferredAttributeResolver deferredAttributeResolver;
+
+    private Duration deferredDeadline;
+
     protected CommonLayoutBuilder(CommonUtils commonUtils, CommonUIConfiguration commonUIConfiguration) {
         this.commonUtils = commonUtils;
         this.commonUIConfiguration = commonUIConfiguration;
@@ -165,6 +217,7 @@ public abstract class CommonLayoutBuilder<T extends CommonLayoutBuilder<T>> {
     public T initiateDefaults() {
 
         attributes.clear();
+        deferredDeadline = Duration.ofMillis(commonUIConfiguration.getDeferredAttributes().getDeadlineMillis());
 
         // Setting default values for the layouts
         attributes.put("showDefaultHead", true);
@@ -233,6 +286,7 @@ public abstract class CommonLayoutBuilder<T extends CommonLayoutBuilder<T>> {
         attributes.put("exportButtonPath", "");
         attributes.put("withCommonCss", true);
         attributes.put("withCommonJs", true);
+        attributes.put("dataVersion", null);
 
         log.debug("Common Layout Builder initiated with default values");
         log.debug("with pageUrls: {}", commonUIConfiguration.getUrls());
@@ -552,8 +606,87 @@ public abstract class CommonLayoutBuilder<T extends CommonLayoutBuilder<T>> {
         return returnThis();
     }
 
+    public T withDeferredAttribute(String attributeName, Supplier<?> supplier) {
+        return withDeferredAttribute(attributeName, supplier, currentValue(attributeName));
+    }
+
+    public T withDeferredAttribute(String attributeName, Supplier<?> supplier, Object fallback) {
+        attributes.put(attributeName, DeferredAttribute.of(supplier, fallback));
+        return returnThis();
+    }
+
+    public T withDeferredAttribute(String attributeName, CompletableFuture<?> future) {
+        return withDeferredAttribute(attributeName, future, currentValue(attributeName));
+    }
+
+    public T withDeferredAttribute(String attributeName, CompletableFuture<?> future, Object fallback) {
+        attributes.put(attributeName, DeferredAttribute.of(future, fallback));
+        return returnThis();
+    }
+
+    public T withDeferredBreadCrumbList(Supplier<List<String>> breadCrumbList) {
+        DeferredAttribute deferredAttribute = DeferredAttribute.of(breadCrumbList, Collections.emptyMap())
+                .map((List<String> names) -> commonUtils.setNavigationLinks(names, commonUIConfiguration.getUrls()));
+        attributes.put("breadCrumbList", deferredAttribute);
+        return returnThis();
+    }
+
+    public T withDeferredDeadline(Duration deferredDeadline) {
+        this.deferredDeadline = deferredDeadline;
+        return returnThis();
+    }
+
+    // The value configured so far, usually the default, is the fallback of a deferred attribute
+    protected Object currentValue(String attributeName) {
+        Object value = attributes.get(attributeName);
+        return value instanceof DeferredAttribute ? null : value;
+    }
+
+    public T withDataVersion(Object dataVersion) {
+        attributes.put("dataVersion", dataVersion);
+        return returnThis();
+    }
+
+    /* Returns true and sets the 304 status when the If-None-Match header matches the current ETag of the page,
+        otherwise the ETag header is added to the response. Attributes configured after this call are not part of the tag.
+     */
+    public boolean checkNotModified(WebRequest webRequest) {
+        Object dataVersion = attributes.get("dataVersion");
+        if (Objects.isNull(dataVersion)) {
+            log.debug("No data version configured, conditional GET skipped");
+            return false;
+        }
+        return webRequest.checkNotModified(currentETag(webRequest));
+    }
+
+    /* Pages carry the user's CSRF token and personalized links, so the tag is scoped to the user and the session.
+        Configuration changes are covered by ui.version only, a hash of the configuration objects would differ between
+        restarts and nodes.
+     */
+    protected String currentETag(WebRequest webRequest) {
+        HttpServletRequest request = webRequest instanceof NativeWebRequest nativeWebRequest
+                ? nativeWebRequest.getNativeRequest(HttpServletRequest.class) : null;
+        HttpSession session = Objects.isNull(request) ? null : request.getSession(false);
+        return LayoutFingerprint.strongETag(attributes.get("dataVersion"), attributes,
+                getClass().getName(),
+                CommonLayoutBuilder.class.getPackage().getImplementationVersion(),
+                commonUIConfiguration.getVersion(),
+                webRequest.getRemoteUser(),
+                Objects.isNull(session) ? null : session.getId(),
+                // Partial and full renderings of the same page are different representations
+                webRequest.getHeader(PartialRenderInterceptor.PARTIAL_HEADER));
+    }
+
+    // Called once the deferred attributes are loaded, layouts rendering large data sets ask for admission here
+    protected void admit() {
+    }
+
     public void build(Model model) {
+        deferredAttributeResolver.resolve(attributes, deferredDeadline);
+        admit();
         attributes.forEach(model::addAttribute);
+        // Fragment selection is resolved once per configuration instead of on every template expression
+        model.addAttribute(LayoutSlotTagProcessor.LAYOUT_PLAN_ATTRIBUTE, layoutPlanCompiler.compile(attributes));
     }
 
 }
\ No newline at end of file
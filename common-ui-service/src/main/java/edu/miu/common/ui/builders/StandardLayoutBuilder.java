@@ -2,9 +2,14 @@ package edu.miu.common.ui.builders;
 
 import edu.miu.common.ui.config.CommonUIConfiguration;
 import edu.miu.common.ui.utils.CommonUtils;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.WebApplicationContext;
 
+// @Scope is not inherited from CommonLayoutBuilder, without it the builder state is shared by concurrent requests
 @Component
+@Scope(value = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
 public class StandardLayoutBuilder extends CommonLayoutBuilder<StandardLayoutBuilder> {
 
     public StandardLayoutBuilder(CommonUtils commonUtils, CommonUIConfiguration navbarConfiguration) {
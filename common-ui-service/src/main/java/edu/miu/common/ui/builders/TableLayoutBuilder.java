@@ -1,12 +1,35 @@
 package edu.miu.common.ui.builders;
 
+import edu.miu.common.ui.admission.AdmissionControl;
 import edu.miu.common.ui.config.CommonUIConfiguration;
+import edu.miu.common.ui.export.RowBuffer;
+import edu.miu.common.ui.highlight.RowHighlightCompiler;
+import edu.miu.common.ui.highlight.RowHighlightRule;
+import edu.miu.common.ui.highlight.RowHighlighter;
+import edu.miu.common.ui.layout.PartialRenderInterceptor;
+import edu.miu.common.ui.preferences.TablePreferenceService;
+import edu.miu.common.ui.selection.TableSelectionService;
+import edu.miu.common.ui.service.contract.KeysetPage;
 import edu.miu.common.ui.utils.CommonUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Component;
+import org.springframework.ui.Model;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * <h1>TableLayoutBuilder</h1>
@@ -15,7 +38,10 @@ import java.util.Map;
  * <h2>Public Methods</h2>
  * <dl>
  *   <dt>{@link #withTableList(T)}</dt>
- *   <dd>Sets the list of items to be displayed in the table fragment. The type of the list is generic to accommodate different data structures.</dd>
+ *   <dd>Sets the list of items to be displayed in the table fragment. The type of the list is generic to accommodate different data structures. A RowBuffer keeps large lists off the heap and is closed once the page is rendered.</dd>
+ *
+ *   <dt>{@link #withDeferredTableList(Supplier)} and {@link #withDeferredTableList(CompletableFuture)}</dt>
+ *   <dd>Loads the list of items concurrently with the other deferred attributes when the layout is built, an empty list is the fallback.</dd>
  *
  *   <dt>{@link #withHeaderNames(List)}</dt>
  *   <dd>Defines the column headers for the table fragment, provided as a list of strings.</dd>
@@ -62,6 +88,36 @@ import java.util.Map;
  *   <dt>{@link #withRowHyperlinkMap(Map)}</dt>
  *   <dd>Subtitles the value of a specific field in case the value is not needed and a Static text is preferred.</dd>
  *
+ *   <dt>{@link #withRowIdAttribute(String)}</dt>
+ *   <dd>Sets the attribute that identifies each row, rendered as the data-row-id of the table rows.</dd>
+ *
+ *   <dt>{@link #withLiveTable(String, String)}</dt>
+ *   <dd>Subscribes the page to the row changes published for the table name through the TableUpdatePublisher, keyed by the row id attribute.</dd>
+ *
+ *   <dt>{@link #withSearchIndex(String, String)}</dt>
+ *   <dd>Searches the rows of every page through the index registered for the table name in the TableSearchService, keyed by the row id attribute.</dd>
+ *
+ *   <dt>{@link #withSelection(String, String)} and {@link #withSelection(String, String, String)}</dt>
+ *   <dd>Keeps the checked rows in the session through the TableSelectionService, across pages. Select all selects every row matching the filter, e.g. the current search query.</dd>
+ *
+ *   <dt>{@link #withColumnProjection(String)} and {@link #withColumnProjection(String, Function)}</dt>
+ *   <dd>Renders only the columns the user keeps checked in the "Columns" dropdown, saved per user through the TablePreferenceService. The function receives the visible attribute names and returns the table list, so the query can select only those fields. Call it after the header and attribute names are set.</dd>
+ *
+ *   <dt>{@link #withPartialRendering(boolean)}</dt>
+ *   <dd>Lets paging and page size changes fetch only the table and the pagination instead of the whole page, enabled by default. Disable it for views that change more than the table between pages.</dd>
+ *
+ *   <dt>{@link #withRowHighlights(String)}, {@link #withRowHighlightRule(RowHighlightRule)} and {@link #withRowHighlightRules(List)}</dt>
+ *   <dd>Highlights rows with declarative rules, a rule set of ui.row-highlights or rules built in code. The rules are compiled once and checked once per row, settingRowBackGroundColor of CommonUtils is the fallback. Rules with a legend label are listed below the table.</dd>
+ *
+ *   <dt>{@link #withCompiledTable(boolean)}</dt>
+ *   <dd>Renders the table with a CompiledTable, which writes the markup of the table fragment without evaluating its expressions for every cell. Defaults to ui.templates.compiled-table.</dd>
+ *
+ *   <dt>{@link #withPaginationSort(String)}</dt>
+ *   <dd>Sets the sort sent by the pagination links, "id,desc" by default.</dd>
+ *
+ *   <dt>{@link #withKeysetPagination(String, KeysetPage)}</dt>
+ *   <dd>Configures the cursor based "framework/fragments/keyset-pagination :: keyset-pagination" fragment, which needs no total count. The page is usually built with KeysetPagination.slice.</dd>
+ *
  *   <dd>Applies the configured attributes to a Spring MVC Model, finalizing the layout for rendering.</dd>
  * </dl>
  *
@@ -84,9 +140,25 @@ import java.util.Map;
  *   builder.build(model);
  * </code></pre>
  */
+// @Scope is not inherited from CommonLayoutBuilder, without it the builder state is shared by concurrent requests
 @Component
+@Scope(value = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
 public class TableLayoutBuilder extends CommonLayoutBuilder<TableLayoutBuilder> {
 
+    public static final String COMPILED_TABLE = "framework/fragments/compiled-table :: common-table";
+
+    @Autowired
+    private TableSelectionService tableSelectionService;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private TablePreferenceService tablePreferenceService;
+
+    @Autowired
+    private RowHighlightCompiler rowHighlightCompiler;
+
     public TableLayoutBuilder(CommonUtils commonUtils, CommonUIConfiguration navbarConfiguration) {
         super(commonUtils, navbarConfiguration);
     }
@@ -115,6 +187,20 @@ public class TableLayoutBuilder extends CommonLayoutBuilder<TableLayoutBuilder>
         attributes.put("absolutePathLinks", Collections.emptyList());
         attributes.put("absolutePathName", "");
         attributes.put("rowHyperlinkMap", Collections.emptyMap());
+        attributes.put("rowIdAttribute", "");
+        attributes.put("liveTablePath", "");
+        attributes.put("searchIndexPath", "");
+        attributes.put("selectionPath", "");
+        attributes.put("selectionFilter", "");
+        attributes.put("tableSelection", null);
+        attributes.put("columnPreferencePath", "");
+        attributes.put("allHeaderNames", Collections.emptyList());
+        attributes.put("allAttributeNames", Collections.emptyList());
+        attributes.put("paginationSort", "id,desc");
+        attributes.put(PartialRenderInterceptor.PARTIAL_RENDERING_ATTRIBUTE, true);
+        attributes.put("rowHighlightRules", new ArrayList<RowHighlightRule>());
+        attributes.put("rowHighlightLegend", Collections.emptyMap());
+        attributes.put("compiledTable", commonUIConfiguration.getTemplates().isCompiledTable());
 
         return this;
     }
@@ -124,6 +210,14 @@ public class TableLayoutBuilder extends CommonLayoutBuilder<TableLayoutBuilder>
         return this;
     }
 
+    public <T> TableLayoutBuilder withDeferredTableList(Supplier<T> tableList) {
+        return withDeferredAttribute("tableList", tableList, Collections.emptyList());
+    }
+
+    public <T> TableLayoutBuilder withDeferredTableList(CompletableFuture<T> tableList) {
+        return withDeferredAttribute("tableList", tableList, Collections.emptyList());
+    }
+
     public TableLayoutBuilder withHeaderNames(List<String> headerNames) {
         attributes.put("headerNames", headerNames);
         return this;
@@ -203,4 +297,150 @@ public class TableLayoutBuilder extends CommonLayoutBuilder<TableLayoutBuilder>
         return this;
     }
 
+    public TableLayoutBuilder withRowIdAttribute(String rowIdAttribute) {
+        attributes.put("rowIdAttribute", rowIdAttribute);
+        return this;
+    }
+
+    public TableLayoutBuilder withPaginationSort(String paginationSort) {
+        attributes.put("paginationSort", paginationSort);
+        return this;
+    }
+
+    public TableLayoutBuilder withRowHighlights(String ruleSetName) {
+        List<RowHighlightRule> rules = commonUIConfiguration.getRowHighlights().get(ruleSetName);
+        if (Objects.isNull(rules)) {
+            throw new IllegalArgumentException("No row highlight rules configured under ui.row-highlights." + ruleSetName);
+        }
+        return withRowHighlightRules(rules);
+    }
+
+    public TableLayoutBuilder withRowHighlightRules(List<RowHighlightRule> rules) {
+        rowHighlightRules().addAll(rules);
+        return this;
+    }
+
+    public TableLayoutBuilder withRowHighlightRule(RowHighlightRule rule) {
+        rowHighlightRules().add(rule);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RowHighlightRule> rowHighlightRules() {
+        return (List<RowHighlightRule>) attributes.get("rowHighlightRules");
+    }
+
+    public TableLayoutBuilder withCompiledTable(boolean compiledTable) {
+        attributes.put("compiledTable", compiledTable);
+        return this;
+    }
+
+    public TableLayoutBuilder withPartialRendering(boolean partialRendering) {
+        attributes.put(PartialRenderInterceptor.PARTIAL_RENDERING_ATTRIBUTE, partialRendering);
+        return this;
+    }
+
+    // The page size is shared with the entries fragment, so the size selector keeps working with cursors
+    public TableLayoutBuilder withKeysetPagination(String paginationPath, KeysetPage keysetPage) {
+        attributes.put("paginationPath", paginationPath);
+        attributes.put("keysetPage", keysetPage);
+        attributes.put("pageSize", keysetPage.getSize());
+        attributes.put("paginationSort", keysetPage.getSort());
+        return this;
+    }
+
+    public TableLayoutBuilder withLiveTable(String tableName, String rowIdAttribute) {
+        attributes.put("rowIdAttribute", rowIdAttribute);
+        attributes.put("liveTablePath", "/live-table/" + tableName);
+        return this;
+    }
+
+    public TableLayoutBuilder withSearchIndex(String tableName, String rowIdAttribute) {
+        attributes.put("rowIdAttribute", rowIdAttribute);
+        attributes.put("searchIndexPath", "/table-search/" + tableName);
+        return this;
+    }
+
+    public TableLayoutBuilder withSelection(String tableName, String rowIdAttribute) {
+        return withSelection(tableName, rowIdAttribute, "");
+    }
+
+    public TableLayoutBuilder withSelection(String tableName, String rowIdAttribute, String filter) {
+        attributes.put("rowIdAttribute", rowIdAttribute);
+        attributes.put("selectionPath", "/table-selection/" + tableName);
+        attributes.put("selectionFilter", filter);
+        attributes.put("tableSelection", tableSelectionService.findCurrentSelection(tableName));
+        return this;
+    }
+
+    public TableLayoutBuilder withColumnProjection(String tableName) {
+        return withColumnProjection(tableName, null);
+    }
+
+    /* The dropdown lists every column from allHeaderNames, while the header and attribute names are narrowed to the
+        visible ones. The table list function should still load the row id and the attributes used by the links.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> TableLayoutBuilder withColumnProjection(String tableName, Function<List<String>, T> tableList) {
+        List<String> attributeNames = (List<String>) attributes.get("attributeNames");
+        List<String> headerNames = (List<String>) attributes.get("headerNames");
+        List<String> visibleAttributeNames = tablePreferenceService.visibleColumns(tableName, attributeNames);
+
+        List<String> visibleHeaderNames = new ArrayList<>();
+        for (int i = 0; i < headerNames.size(); i++) {
+            // Headers past the attribute names belong to the path columns, which are always shown
+            if (i >= attributeNames.size() || visibleAttributeNames.contains(attributeNames.get(i))) {
+                visibleHeaderNames.add(headerNames.get(i));
+            }
+        }
+
+        attributes.put("columnPreferencePath", "/table-preferences/" + tableName);
+        attributes.put("allHeaderNames", headerNames.subList(0, Math.min(attributeNames.size(), headerNames.size())));
+        attributes.put("allAttributeNames", attributeNames);
+        attributes.put("headerNames", visibleHeaderNames);
+        attributes.put("attributeNames", visibleAttributeNames);
+        if (tableList != null) {
+            attributes.put("tableList", tableList.apply(visibleAttributeNames));
+        }
+        return this;
+    }
+
+    /* The cost of a table is its cells, the permit is released once the request, and so the rendering, completes.
+        Rows spilled to disk are released at the same time, their callback is registered first so a rejected table
+        does not leave its file behind. Outside of a request the caller keeps closing its RowBuffer.
+     */
+    @Override
+    protected void admit() {
+        RequestAttributes currentAttributes = RequestContextHolder.getRequestAttributes();
+        Object tableList = attributes.get("tableList");
+        if (currentAttributes != null && tableList instanceof RowBuffer rowBuffer) {
+            currentAttributes.registerDestructionCallback(RowBuffer.class.getName() + "." + System.identityHashCode(rowBuffer),
+                    rowBuffer::close, RequestAttributes.SCOPE_REQUEST);
+        }
+        if (!(currentAttributes instanceof ServletRequestAttributes requestAttributes)) {
+            return;
+        }
+        Object attributeNames = attributes.get("attributeNames");
+        long rows = tableList instanceof Collection<?> collection ? collection.size() : 0;
+        long columns = attributeNames instanceof Collection<?> collection ? collection.size() : 0;
+        AdmissionControl.Permit permit = admissionControl.acquire(requestAttributes.getRequest(), rows * columns);
+        requestAttributes.registerDestructionCallback(AdmissionControl.class.getName() + ".permit." + System.identityHashCode(permit),
+                permit::close, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /* Rules are compiled when the layout is built, so they can be added in any order. The compiled table takes the place
+        of the default table only, a custom table configured by the view is kept.
+     */
+    @Override
+    public void build(Model model) {
+        RowHighlighter rowHighlighter = rowHighlightCompiler.compile(rowHighlightRules());
+        attributes.put("rowHighlighter", rowHighlighter);
+        attributes.put("rowHighlightLegend", rowHighlighter.getLegend());
+        if (Boolean.TRUE.equals(attributes.get("compiledTable")) && Boolean.TRUE.equals(attributes.get("showDefaultTable"))) {
+            attributes.put("showDefaultTable", false);
+            attributes.put("customTable", COMPILED_TABLE);
+        }
+        super.build(model);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package edu.miu.common.ui.config;
+
+import edu.miu.common.ui.export.ExportCheckpointStore;
+import edu.miu.common.ui.export.InMemoryExportCheckpointStore;
+import edu.miu.common.ui.preferences.InMemoryTablePreferenceStore;
+import edu.miu.common.ui.preferences.TablePreferenceStore;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/* Default beans the application may replace with its own. Auto-configurations are processed after the components of
+    the application, so a bean of the same type declared anywhere in the application wins without @Primary. It is
+    listed in META-INF/spring/org.springframework.boot.autoconfigure.AutoConfiguration.imports, and @SpringBootApplication
+    leaves it out of component scanning.
+ */
+@AutoConfiguration
+public class CommonUIAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(TablePreferenceStore.class)
+    public InMemoryTablePreferenceStore inMemoryTablePreferenceStore() {
+        return new InMemoryTablePreferenceStore();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ExportCheckpointStore.class)
+    public InMemoryExportCheckpointStore inMemoryExportCheckpointStore() {
+        return new InMemoryExportCheckpointStore();
+    }
+
+}
@@ -0,0 +1,69 @@
+package edu.miu.common.ui.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.server.AbstractConfigurableWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Objects;
+
+/* Enables response compression of the embedded server for the framework pages, large table pages compress very well.
+    It runs after the server.* properties are applied and leaves an explicit server.compression configuration alone,
+    server.compression.enabled=false included: the factory holds the same disabled Compression whether or not the
+    property was set, so the property itself is checked.
+ */
+@Slf4j
+@Component
+public class CommonUICompressionCustomizer implements WebServerFactoryCustomizer<ConfigurableServletWebServerFactory>, Ordered {
+
+    static final String COMPRESSION_ENABLED_PROPERTY = "server.compression.enabled";
+
+    private final CommonUIConfiguration commonUIConfiguration;
+
+    private final Environment environment;
+
+    public CommonUICompressionCustomizer(CommonUIConfiguration commonUIConfiguration, Environment environment) {
+        this.commonUIConfiguration = commonUIConfiguration;
+        this.environment = environment;
+    }
+
+    @Override
+    public void customize(ConfigurableServletWebServerFactory factory) {
+
+        CommonUIConfiguration.Compression settings = commonUIConfiguration.getCompression();
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        if (environment.containsProperty(COMPRESSION_ENABLED_PROPERTY)) {
+            log.debug("Response compression left to {}={}", COMPRESSION_ENABLED_PROPERTY, environment.getProperty(COMPRESSION_ENABLED_PROPERTY));
+            return;
+        }
+
+        if (factory instanceof AbstractConfigurableWebServerFactory configurableFactory
+                && Objects.nonNull(configurableFactory.getCompression())
+                && configurableFactory.getCompression().getEnabled()) {
+            log.debug("Response compression already configured by the application");
+            return;
+        }
+
+        Compression compression = new Compression();
+        compression.setEnabled(true);
+        compression.setMimeTypes(settings.getMimeTypes().toArray(String[]::new));
+        compression.setMinResponseSize(DataSize.ofBytes(settings.getMinResponseSizeBytes()));
+        factory.setCompression(compression);
+
+        log.debug("Response compression enabled for {} above {} bytes", settings.getMimeTypes(), settings.getMinResponseSizeBytes());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+}
@@ -1,10 +1,15 @@
 package edu.miu.common.ui.config;
 
+import edu.miu.common.ui.export.ExportLayout;
+import edu.miu.common.ui.highlight.RowHighlightRule;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -12,6 +17,7 @@ import java.util.Map;
 @Component
 @ConfigurationProperties(prefix="ui")
 @PropertySource(value = "${app.ui-profile}", factory = YamlPropertySourceFactory.class)
+@ImportRuntimeHints(CommonUIRuntimeHints.class)
 public class CommonUIConfiguration {
 
     private Map<String, String> urls;
@@ -20,6 +26,32 @@ public class CommonUIConfiguration {
 
     private List<NavbarItem> navbarItems;
 
+    // Part of the ETag of every layout page, change it whenever a deploy changes the configuration or the rendered markup
+    private String version;
+
+    // Row highlight rule sets by name, applied to a table with TableLayoutBuilder.withRowHighlights
+    private Map<String, List<RowHighlightRule>> rowHighlights = new HashMap<>();
+
+    private Templates templates = new Templates();
+
+    private Compression compression = new Compression();
+
+    private LiveTable liveTable = new LiveTable();
+
+    private DeferredAttributes deferredAttributes = new DeferredAttributes();
+
+    private Export export = new Export();
+
+    private ExportCache exportCache = new ExportCache();
+
+    private Admission admission = new Admission();
+
+    private Import importing = new Import();
+
+    private Warmup warmup = new Warmup();
+
+    private RowBuffer rowBuffer = new RowBuffer();
+
     @Data
     public static class NavbarItem  {
 
@@ -31,4 +63,135 @@ public class CommonUIConfiguration {
 
     }
 
+    @Data
+    public static class Templates {
+
+        // Collapses whitespace and strips parser-level comments of the framework templates when they are loaded
+        private boolean minify = true;
+
+        // Renders the table fragment of the table layouts with a CompiledTable instead of table.html
+        private boolean compiledTable;
+
+    }
+
+    @Data
+    public static class Compression {
+
+        // Compresses text responses unless the application set server.compression.enabled, to true or false
+        private boolean enabled = true;
+
+        private List<String> mimeTypes = List.of("text/html", "text/css", "text/javascript", "application/javascript", "application/json");
+
+        private long minResponseSizeBytes = 2048;
+
+    }
+
+    @Data
+    public static class LiveTable {
+
+        // Changes published within the window are coalesced per row and sent as a single batch
+        private long coalesceWindowMillis = 250;
+
+        // A connection with more pending rows than this is asked to reload the page instead
+        private int maxPendingRows = 5000;
+
+        // Browsers reconnect automatically once the emitter times out
+        private long emitterTimeoutMillis = 1_800_000;
+
+    }
+
+    @Data
+    public static class DeferredAttributes {
+
+        // Overall time a layout waits for its deferred attributes before using their fallback values
+        private long deadlineMillis = 5000;
+
+    }
+
+    @Data
+    public static class Export {
+
+        // Packaging of the shards once an export needs more than one sheet
+        private ExportLayout layout = ExportLayout.SHEETS;
+
+        // The XLSX limit of 1,048,576 rows minus the header row
+        private int maxRowsPerSheet = 1_048_575;
+
+        // Rows written by one worker at a time, the unit of parallelism within a sheet
+        private int rowsPerChunk = 50_000;
+
+        // Workers generating the chunks, the number of processors when 0
+        private int parallelism = 0;
+
+    }
+
+    @Data
+    public static class Admission {
+
+        private boolean enabled = true;
+
+        // Cells (rows x columns) of the exports and tables processed at the same time by one node
+        private long budgetCells = 20_000_000;
+
+        // Requests below this cost are admitted right away without counting against the budget
+        private long minCost = 50_000;
+
+        private int maxQueuedPerUser = 2;
+
+        private long maxWaitMillis = 10_000;
+
+    }
+
+    @Data
+    public static class ExportCache {
+
+        private boolean enabled = true;
+
+        // Parent of the subdirectory the cached exports are kept in, the temporary directory when empty
+        private String directory = "";
+
+        private long maxSizeMegabytes = 1024;
+
+    }
+
+    @Data
+    public static class Import {
+
+        // Rows handed to the ImportBatchHandler at a time
+        private int batchSize = 1000;
+
+        // Rows of the TableModel preview returned with the result
+        private int previewRows = 20;
+
+        // Guards against sheets with formatting far past the data, every header becomes a key of every row
+        private int maxColumns = 512;
+
+        private char csvDelimiter = ',';
+
+    }
+
+    @Data
+    public static class Warmup {
+
+        private boolean enabled = true;
+
+        // Synthetic renders of every layout, the first parses the templates and the next ones fill the expression caches
+        private int renderIterations = 5;
+
+        // Fully qualified names of the classes shown in tables, their fields are looked up before the first request
+        private List<String> entityTypes = new ArrayList<>();
+
+    }
+
+    @Data
+    public static class RowBuffer {
+
+        // Bytes of encoded rows kept in memory, larger buffers spill to a memory mapped temporary file
+        private int memoryThresholdMegabytes = 64;
+
+        // Where the buffers spill, the temporary directory of the JVM when empty
+        private String directory = "";
+
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package edu.miu.common.ui.config;
+
+import edu.miu.common.ui.service.contract.AdmissionUsage;
+import edu.miu.common.ui.service.contract.Breadcrumb;
+import edu.miu.common.ui.service.contract.ExportExcel;
+import edu.miu.common.ui.service.contract.ImportResult;
+import edu.miu.common.ui.service.contract.KeysetPage;
+import edu.miu.common.ui.service.contract.TableChangeType;
+import edu.miu.common.ui.service.contract.TableColor;
+import edu.miu.common.ui.service.contract.TableColumnPreference;
+import edu.miu.common.ui.service.contract.TableElement;
+import edu.miu.common.ui.service.contract.TableHeader;
+import edu.miu.common.ui.service.contract.TableIcon;
+import edu.miu.common.ui.service.contract.TableJustification;
+import edu.miu.common.ui.service.contract.TableModel;
+import edu.miu.common.ui.service.contract.TableRow;
+import edu.miu.common.ui.service.contract.TableRowChange;
+import edu.miu.common.ui.service.contract.TableSearchResult;
+import edu.miu.common.ui.service.contract.TableSelectionDelta;
+import edu.miu.common.ui.service.contract.TableSelectionState;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/* Runtime hints for Spring AOT and GraalVM native images.
+    The framework templates and static assets are loaded from the classpath, the contract types are read by the
+    templates and bound by Jackson, YamlPropertySourceFactory is instantiated by @PropertySource and the startup
+    warm-up renders the layouts with JDK proxies of the servlet request and response.
+
+    Table entities are read by CommonUtils.getValueByHeader through their declared fields, so every application
+    registers the types it renders (nested attribute types included) from its own registrar:
+
+    E.g. public class StudentRuntimeHints implements RuntimeHintsRegistrar {
+             public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+                 CommonUIRuntimeHints.registerTableEntity(hints, Student.class, Program.class);
+             }
+         }
+         @ImportRuntimeHints(StudentRuntimeHints.class) on any configuration class of the application
+ */
+public class CommonUIRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> CONTRACT_TYPES = List.of(AdmissionUsage.class, Breadcrumb.class, ExportExcel.class, ImportResult.class, KeysetPage.class,
+            TableChangeType.class, TableColor.class, TableColumnPreference.class, TableElement.class, TableHeader.class, TableIcon.class, TableJustification.class,
+            TableModel.class, TableRow.class, TableRowChange.class, TableSearchResult.class, TableSelectionDelta.class, TableSelectionState.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern("templates/framework/**")
+                .registerPattern("static/css/*")
+                .registerPattern("static/js/*")
+                .registerPattern("static/images/*");
+
+        CONTRACT_TYPES.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS));
+
+        hints.reflection().registerType(YamlPropertySourceFactory.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        hints.proxies()
+                .registerJdkProxy(HttpServletRequest.class)
+                .registerJdkProxy(HttpServletResponse.class);
+    }
+
+    // The declared fields of the whole hierarchy, getFieldByHeaderName looks them up class by class
+    public static void registerTableEntity(RuntimeHints hints, Class<?>... types) {
+        for (Class<?> type : types) {
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                hints.reflection().registerType(current, MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+    }
+
+}
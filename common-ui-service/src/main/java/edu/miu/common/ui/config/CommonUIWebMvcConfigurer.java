@@ -0,0 +1,16 @@
+package edu.miu.common.ui.config;
+
+import edu.miu.common.ui.layout.PartialRenderInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Component
+public class CommonUIWebMvcConfigurer implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PartialRenderInterceptor());
+    }
+
+}
@@ -0,0 +1,23 @@
+package edu.miu.common.ui.controller;
+
+import edu.miu.common.ui.admission.AdmissionControl;
+import edu.miu.common.ui.service.contract.AdmissionUsage;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+@Controller
+public class AdmissionUsageController {
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionUsageController(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @GetMapping("/admission/usage")
+    public ResponseEntity<AdmissionUsage> getUsage() {
+        return ResponseEntity.ok(admissionControl.getUsage());
+    }
+
+}
@@ -0,0 +1,87 @@
+package edu.miu.common.ui.controller;
+
+import edu.miu.common.ui.export.IncrementalExport;
+import edu.miu.common.ui.export.IncrementalExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Objects;
+
+@Slf4j
+@Controller
+public class IncrementalExportController {
+
+    static final String SINCE_HEADER = "X-Export-Since";
+
+    static final String WATERMARK_HEADER = "X-Export-Watermark";
+
+    private final IncrementalExportService incrementalExportService;
+
+    public IncrementalExportController(IncrementalExportService incrementalExportService) {
+        this.incrementalExportService = incrementalExportService;
+    }
+
+    /* Rows changed since the checkpoint of the authenticated user. An explicit since exports again from that watermark,
+        e.g. to recover a lost file, and an empty one exports the whole table. Anonymous requests have no checkpoint and
+        must give since, their exports never move a checkpoint.
+     */
+    @GetMapping("/export/incremental/{tableName}")
+    public ResponseEntity<StreamingResponseBody> exportIncrement(@PathVariable String tableName,
+                                                                 @RequestParam(required = false) String since,
+                                                                 HttpServletRequest request) throws IOException {
+        log.debug("Received incremental export of {} since {}", tableName, since);
+        if (!incrementalExportService.isRegistered(tableName)) {
+            return ResponseEntity.notFound().build();
+        }
+        String user = request.getRemoteUser();
+        if (Objects.isNull(user) && Objects.isNull(since)) {
+            throw new IllegalArgumentException("Checkpoints are only kept for authenticated users, since is required to export " + tableName);
+        }
+        String from = Objects.isNull(since)
+                ? incrementalExportService.findCheckpoint(user, tableName).orElse(null)
+                : since.isBlank() ? null : since;
+
+        IncrementalExport incremental = incrementalExportService.export(request, tableName, from);
+        // The file is deleted by the body once it is sent, or when the request ends without the body ever running
+        ReleaseOnCompletion.register(request, incremental);
+        StreamingResponseBody body = outputStream -> {
+            try (incremental) {
+                Files.copy(incremental.export().file(), outputStream);
+                outputStream.flush();
+                // The checkpoint only moves once the whole file is sent, an interrupted download is exported again
+                if (Objects.nonNull(user)) {
+                    incrementalExportService.saveCheckpoint(user, tableName, incremental.watermark());
+                }
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", String.format("attachment; filename=\"%s\"", incremental.export().filename()));
+        headers.add(SINCE_HEADER, Objects.toString(from, ""));
+        headers.add(WATERMARK_HEADER, Objects.toString(incremental.watermark(), ""));
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentLength(incremental.export().size())
+                .contentType(MediaType.parseMediaType(incremental.export().contentType()))
+                .body(body);
+    }
+
+    // Anonymous requests without since
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleMissingSince(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+}
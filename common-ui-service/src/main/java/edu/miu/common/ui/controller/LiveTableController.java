@@ -0,0 +1,27 @@
+package edu.miu.common.ui.controller;
+
+import edu.miu.common.ui.live.TableUpdatePublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@Controller
+public class LiveTableController {
+
+    private final TableUpdatePublisher tableUpdatePublisher;
+
+    public LiveTableController(TableUpdatePublisher tableUpdatePublisher) {
+        this.tableUpdatePublisher = tableUpdatePublisher;
+    }
+
+    @GetMapping(path = "/live-table/{tableName}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable String tableName) {
+        log.debug("Received request to subscribe to live table: {}", tableName);
+        return tableUpdatePublisher.subscribe(tableName);
+    }
+
+}
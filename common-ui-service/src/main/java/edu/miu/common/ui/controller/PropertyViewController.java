@@ -1,53 +1,84 @@
 package edu.miu.common.ui.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import edu.miu.common.ui.service.contract.ExportExcel;
-import edu.miu.common.ui.utils.CommonUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import edu.miu.common.ui.admission.AdmissionControl;
+import edu.miu.common.ui.export.ExcelExportEngine;
+import edu.miu.common.ui.export.ExportRequest;
+import edu.miu.common.ui.export.ExportRequestReader;
+import edu.miu.common.ui.export.ExportResultCache;
+import edu.miu.common.ui.export.RowBuffer;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-
-import java.io.ByteArrayOutputStream;
-import java.util.List;
-import java.util.Map;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @Controller
 public class PropertyViewController {
 
-    private final CommonUtils commonUtils;
+    private final ExcelExportEngine excelExportEngine;
+
+    private final ExportResultCache exportResultCache;
+
+    private final AdmissionControl admissionControl;
 
-    public PropertyViewController(CommonUtils commonUtils) {
-        this.commonUtils = commonUtils;
+    private final ExportRequestReader exportRequestReader;
+
+    public PropertyViewController(ExcelExportEngine excelExportEngine, ExportResultCache exportResultCache,
+                                  AdmissionControl admissionControl, ExportRequestReader exportRequestReader) {
+        this.excelExportEngine = excelExportEngine;
+        this.exportResultCache = exportResultCache;
+        this.admissionControl = admissionControl;
+        this.exportRequestReader = exportRequestReader;
     }
 
     @SneakyThrows
     @PostMapping("/export")
-    public ResponseEntity<Resource> exportToExcel(@RequestBody String jsonData) {
+    public ResponseEntity<StreamingResponseBody> exportToExcel(HttpServletRequest request) {
 
         log.debug("Received request to export data");
-        ExportExcel exportExcel = new ObjectMapper().readValue(jsonData, ExportExcel.class);
-        List<Map<String, String>> tableData = exportExcel.getTableData();
-        String filename = exportExcel.getFilename();
+        ExportResultCache.Lease export;
+        // The rows are read from the body into a RowBuffer, which spills to disk for large exports
+        try (ExportRequest exportRequest = exportRequestReader.read(request.getInputStream())) {
+            RowBuffer dataSource = exportRequest.rows();
+            String filename = exportRequest.filename();
 
-        ByteArrayOutputStream excelOutput = commonUtils.createExcel(tableData);
-        ByteArrayResource resource = new ByteArrayResource(excelOutput.toByteArray());
+            // The same rows exported again are sent from the cache, only generating an export is subject to admission
+            export = exportResultCache.get(exportResultCache.keyOf(dataSource, filename), () -> {
+                AdmissionControl.Permit permit = admissionControl.acquire(request, (long) dataSource.getRowCount() * dataSource.getHeaders().size());
+                try (permit) {
+                    return excelExportEngine.export(dataSource, filename);
+                }
+            });
+        }
+        // Released by the body once the file is sent, or when the request ends without the body ever running
+        ReleaseOnCompletion.register(request, export);
+        StreamingResponseBody body = outputStream -> {
+            try (export) {
+                export.transferTo(outputStream);
+            }
+        };
 
         HttpHeaders headers = new HttpHeaders();
-        headers.add("Content-Disposition", String.format("attachment; filename=\"%s\"", filename));
+        headers.add("Content-Disposition", String.format("attachment; filename=\"%s\"", export.filename()));
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .contentLength(resource.contentLength())
-                .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-                .body(resource);
+                .contentLength(export.size())
+                .contentType(MediaType.parseMediaType(export.contentType()))
+                .body(body);
+    }
+
+    // Bodies that are not the JSON sent by the export button
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<String> handleInvalidBody(JsonProcessingException e) {
+        return ResponseEntity.badRequest().body(e.getOriginalMessage());
     }
 
 }
\ No newline at end of file
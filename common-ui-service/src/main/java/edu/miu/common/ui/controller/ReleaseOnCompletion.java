@@ -0,0 +1,38 @@
+package edu.miu.common.ui.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.concurrent.Callable;
+
+/* Closes a resource sent by a StreamingResponseBody once the asynchronous request is over, whether the body completed,
+    failed or timed out, or was never invoked at all, e.g. when the async request timed out before it was dispatched.
+    The body still closes the resource as soon as it is written, so the resource must allow being closed twice.
+ */
+@Slf4j
+final class ReleaseOnCompletion implements CallableProcessingInterceptor {
+
+    private final AutoCloseable resource;
+
+    private ReleaseOnCompletion(AutoCloseable resource) {
+        this.resource = resource;
+    }
+
+    static void register(HttpServletRequest request, AutoCloseable resource) {
+        WebAsyncUtils.getAsyncManager(request)
+                .registerCallableInterceptor(ReleaseOnCompletion.class.getName(), new ReleaseOnCompletion(resource));
+    }
+
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            log.warn("Could not release the resource of a streamed response", e);
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package edu.miu.common.ui.controller;
+
+import edu.miu.common.ui.importing.TableImportService;
+import edu.miu.common.ui.service.contract.ImportResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+@Slf4j
+@Controller
+public class TableImportController {
+
+    private final TableImportService tableImportService;
+
+    public TableImportController(TableImportService tableImportService) {
+        this.tableImportService = tableImportService;
+    }
+
+    @PostMapping("/import/{importName}")
+    public ResponseEntity<ImportResult> importFile(@PathVariable String importName, @RequestParam("file") MultipartFile file) throws IOException {
+        log.debug("Received import {} of file: {}", importName, file.getOriginalFilename());
+        if (!tableImportService.isRegistered(importName)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(tableImportService.importFile(importName, file));
+    }
+
+    // Unsupported or unreadable files and files with too many columns
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidFile(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+}
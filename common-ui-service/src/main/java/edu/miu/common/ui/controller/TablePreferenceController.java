@@ -0,0 +1,38 @@
+package edu.miu.common.ui.controller;
+
+import edu.miu.common.ui.preferences.TablePreferenceService;
+import edu.miu.common.ui.service.contract.TableColumnPreference;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@Slf4j
+@Controller
+public class TablePreferenceController {
+
+    private final TablePreferenceService tablePreferenceService;
+
+    public TablePreferenceController(TablePreferenceService tablePreferenceService) {
+        this.tablePreferenceService = tablePreferenceService;
+    }
+
+    @PostMapping("/table-preferences/{tableName}")
+    public ResponseEntity<Void> saveColumns(@PathVariable String tableName, @RequestBody TableColumnPreference preference,
+                                            HttpServletRequest request) {
+        log.debug("Received column preference for table: {}", tableName);
+        tablePreferenceService.saveVisibleColumns(request, tableName, preference.getVisibleColumns());
+        return ResponseEntity.noContent().build();
+    }
+
+    // A table without any visible column can not be rendered
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidPreference(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+}
@@ -0,0 +1,33 @@
+package edu.miu.common.ui.controller;
+
+import edu.miu.common.ui.search.TableSearchService;
+import edu.miu.common.ui.service.contract.TableSearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Slf4j
+@Controller
+public class TableSearchController {
+
+    private final TableSearchService tableSearchService;
+
+    public TableSearchController(TableSearchService tableSearchService) {
+        this.tableSearchService = tableSearchService;
+    }
+
+    @GetMapping("/table-search/{tableName}")
+    public ResponseEntity<TableSearchResult> search(@PathVariable String tableName,
+                                                    @RequestParam(name = "q", defaultValue = "") String query,
+                                                    @RequestParam(defaultValue = "1000") int limit) {
+        log.debug("Received search request for table: {}", tableName);
+        if (!tableSearchService.isRegistered(tableName)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(tableSearchService.search(tableName, query, Math.max(limit, 0)));
+    }
+
+}
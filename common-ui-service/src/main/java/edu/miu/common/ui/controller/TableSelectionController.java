@@ -0,0 +1,43 @@
+package edu.miu.common.ui.controller;
+
+import edu.miu.common.ui.selection.TableSelectionService;
+import edu.miu.common.ui.service.contract.TableSelectionDelta;
+import edu.miu.common.ui.service.contract.TableSelectionState;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@Slf4j
+@Controller
+public class TableSelectionController {
+
+    private final TableSelectionService tableSelectionService;
+
+    public TableSelectionController(TableSelectionService tableSelectionService) {
+        this.tableSelectionService = tableSelectionService;
+    }
+
+    @GetMapping("/table-selection/{tableName}")
+    public ResponseEntity<TableSelectionState> getState(@PathVariable String tableName, HttpSession session) {
+        return ResponseEntity.ok(tableSelectionService.getSelection(session, tableName).getState());
+    }
+
+    @PostMapping("/table-selection/{tableName}")
+    public ResponseEntity<TableSelectionState> apply(@PathVariable String tableName, @RequestBody TableSelectionDelta delta, HttpSession session) {
+        log.debug("Received selection changes for table: {}", tableName);
+        return ResponseEntity.ok(tableSelectionService.apply(session, tableName, delta));
+    }
+
+    // Negative row ids can not be stored in the selection bitmap
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRowId(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+}
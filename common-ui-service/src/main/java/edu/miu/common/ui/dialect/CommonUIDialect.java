@@ -0,0 +1,38 @@
+package edu.miu.common.ui.dialect;
+
+import edu.miu.common.ui.layout.LayoutPlanCompiler;
+import edu.miu.common.ui.templates.CompiledTableCompiler;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.standard.StandardDialect;
+
+import java.util.Set;
+
+/* Thymeleaf dialect with the processors used by the framework templates (cui:* attributes).
+    Spring Boot registers every IDialect bean in the template engine, so no extra configuration is needed.
+ */
+@Component
+public class CommonUIDialect extends AbstractProcessorDialect {
+
+    public static final String NAME = "Common UI";
+
+    public static final String PREFIX = "cui";
+
+    private final LayoutPlanCompiler layoutPlanCompiler;
+
+    private final CompiledTableCompiler compiledTableCompiler;
+
+    public CommonUIDialect(LayoutPlanCompiler layoutPlanCompiler, CompiledTableCompiler compiledTableCompiler) {
+        super(NAME, PREFIX, StandardDialect.PROCESSOR_PRECEDENCE);
+        this.layoutPlanCompiler = layoutPlanCompiler;
+        this.compiledTableCompiler = compiledTableCompiler;
+    }
+
+    @Override
+    public Set<IProcessor> getProcessors(String dialectPrefix) {
+        return Set.of(new LayoutSlotTagProcessor(dialectPrefix, layoutPlanCompiler),
+                new CompiledTableTagProcessor(dialectPrefix, compiledTableCompiler));
+    }
+
+}
@@ -0,0 +1,46 @@
+package edu.miu.common.ui.dialect;
+
+import edu.miu.common.ui.templates.CompiledTableCompiler;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/* Replaces the host element with the markup of the compiled table of the view: cui:compiled-table
+    The markup is written as a single unprocessed text node, Thymeleaf copies it to the response as it is.
+    Table lists other than collections, e.g. arrays, are rendered by the regular table fragment instead.
+ */
+public class CompiledTableTagProcessor extends AbstractAttributeTagProcessor {
+
+    public static final String ATTRIBUTE_NAME = "compiled-table";
+
+    public static final String TABLE_FRAGMENT = "~{framework/fragments/table :: common-table}";
+
+    // Runs before any standard processor, like the layout slots, so the fallback th:replace is picked up
+    private static final int PRECEDENCE = 10;
+
+    private final CompiledTableCompiler compiledTableCompiler;
+
+    public CompiledTableTagProcessor(String dialectPrefix, CompiledTableCompiler compiledTableCompiler) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, ATTRIBUTE_NAME, true, PRECEDENCE, true);
+        this.compiledTableCompiler = compiledTableCompiler;
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag, AttributeName attributeName,
+                             String attributeValue, IElementTagStructureHandler structureHandler) {
+
+        Object tableList = context.getVariable("tableList");
+        if (Objects.nonNull(tableList) && !(tableList instanceof Collection<?>)) {
+            structureHandler.setAttribute("th:replace", TABLE_FRAGMENT);
+            return;
+        }
+        structureHandler.replaceWith(compiledTableCompiler.compile(context::getVariable).render(context), false);
+    }
+
+}
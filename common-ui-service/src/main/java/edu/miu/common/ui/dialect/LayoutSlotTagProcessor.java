@@ -0,0 +1,54 @@
+package edu.miu.common.ui.dialect;
+
+import edu.miu.common.ui.layout.LayoutPlan;
+import edu.miu.common.ui.layout.LayoutPlanCompiler;
+import edu.miu.common.ui.layout.LayoutSlot;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/* Executes the layout plan for a single slot: cui:slot="header"
+    An empty slot removes the host element, otherwise the element is replaced by the planned fragment through the
+    standard th:replace processor. The planned expression is a literal, so Thymeleaf parses it once and caches it.
+ */
+public class LayoutSlotTagProcessor extends AbstractAttributeTagProcessor {
+
+    public static final String ATTRIBUTE_NAME = "slot";
+
+    public static final String LAYOUT_PLAN_ATTRIBUTE = "layoutPlan";
+
+    // Runs before any standard processor so the th:replace added here is picked up for the same element
+    private static final int PRECEDENCE = 10;
+
+    private final LayoutPlanCompiler layoutPlanCompiler;
+
+    public LayoutSlotTagProcessor(String dialectPrefix, LayoutPlanCompiler layoutPlanCompiler) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, ATTRIBUTE_NAME, true, PRECEDENCE, true);
+        this.layoutPlanCompiler = layoutPlanCompiler;
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag, AttributeName attributeName,
+                             String attributeValue, IElementTagStructureHandler structureHandler) {
+
+        String fragment = layoutPlan(context).getFragment(LayoutSlot.fromSlotName(attributeValue.trim()));
+
+        if (fragment == null) {
+            structureHandler.removeElement();
+        } else {
+            structureHandler.setAttribute("th:replace", fragment);
+        }
+    }
+
+    // Views rendered without a layout builder do not have a precompiled plan, it is resolved from the context instead
+    private LayoutPlan layoutPlan(ITemplateContext context) {
+        if (context.getVariable(LAYOUT_PLAN_ATTRIBUTE) instanceof LayoutPlan layoutPlan) {
+            return layoutPlan;
+        }
+        return layoutPlanCompiler.compile(context::getVariable);
+    }
+
+}
@@ -0,0 +1,32 @@
+package edu.miu.common.ui.export;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Generated export waiting in a temporary file, closing it deletes the file
+public record ExcelExport(Path file, String filename, String contentType, int rowCount, int shardCount) implements AutoCloseable {
+
+    public static final String XLSX_CONTENT_TYPE = "application/vnd.ms-excel";
+
+    public static final String ZIP_CONTENT_TYPE = "application/zip";
+
+    public long size() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
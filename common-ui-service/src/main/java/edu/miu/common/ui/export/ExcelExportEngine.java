@@ -0,0 +1,385 @@
+package edu.miu.common.ui.export;
+
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/* Generates Excel exports of any size. Rows are split in shards of at most ui.export.max-rows-per-sheet rows, each
+    shard repeating the headers, and every shard in chunks of ui.export.rows-per-chunk rows that the workers write in
+    parallel as worksheet markup. The package is then assembled from a workbook POI creates without rows, replacing its
+    empty worksheets with the chunks, so POI never holds the rows in memory.
+
+    Shards become the sheets of one workbook after a summary sheet with their row counts (ExportLayout.SHEETS), or
+    separate workbooks in a zip archive with a summary workbook (ExportLayout.ZIP). A single shard is a plain workbook
+    with a "Data" sheet, as before.
+
+    Details of the export, e.g. the watermark of an incremental export, are written as name and value pairs in a
+    "Details" sheet after the data sheets, or in the summary workbook of a zip archive.
+ */
+@Slf4j
+@Component
+public class ExcelExportEngine {
+
+    static final String DATA_SHEET = "Data";
+
+    static final String SUMMARY_SHEET = "Summary";
+
+    static final String DETAILS_SHEET = "Details";
+
+    private final CommonUIConfiguration.Export settings;
+
+    private final ExecutorService workers;
+
+    public ExcelExportEngine(CommonUIConfiguration commonUIConfiguration) {
+        this.settings = commonUIConfiguration.getExport();
+        // Shards and chunks of no rows would never reach the end of the data source
+        if (settings.getMaxRowsPerSheet() < 1 || settings.getRowsPerChunk() < 1) {
+            throw new IllegalArgumentException("ui.export.max-rows-per-sheet and ui.export.rows-per-chunk must be at least 1: "
+                    + settings.getMaxRowsPerSheet() + ", " + settings.getRowsPerChunk());
+        }
+        int parallelism = settings.getParallelism() > 0 ? settings.getParallelism() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "excel-export-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ExcelExport export(ExportDataSource source, String filename) throws IOException {
+        return export(source, filename, settings.getLayout(), Map.of());
+    }
+
+    public ExcelExport export(ExportDataSource source, String filename, ExportLayout layout) throws IOException {
+        return export(source, filename, layout, Map.of());
+    }
+
+    public ExcelExport export(ExportDataSource source, String filename, Map<String, String> details) throws IOException {
+        return export(source, filename, settings.getLayout(), details);
+    }
+
+    public ExcelExport export(ExportDataSource source, String filename, ExportLayout layout, Map<String, String> details) throws IOException {
+        long start = System.currentTimeMillis();
+        List<Shard> shards = shards(source.getRowCount());
+        boolean zip = layout == ExportLayout.ZIP && shards.size() > 1;
+        Path target = Files.createTempFile("common-ui-export-", zip ? ".zip" : ".xlsx");
+        try {
+            writeChunks(source, shards);
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(target))) {
+                if (zip) {
+                    writeZip(output, source.getHeaders(), shards, baseName(filename), details);
+                } else {
+                    writeWorkbook(output, source.getHeaders(), shards, shards.size() > 1, details);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        } finally {
+            deleteChunks(shards);
+        }
+        log.debug("Export of {} rows in {} shards generated in {} ms", source.getRowCount(), shards.size(), System.currentTimeMillis() - start);
+        return zip
+                ? new ExcelExport(target, baseName(filename) + ".zip", ExcelExport.ZIP_CONTENT_TYPE, source.getRowCount(), shards.size())
+                : new ExcelExport(target, filename, ExcelExport.XLSX_CONTENT_TYPE, source.getRowCount(), shards.size());
+    }
+
+    private List<Shard> shards(int rowCount) {
+        int rowsPerSheet = settings.getMaxRowsPerSheet();
+        int rowsPerChunk = Math.min(settings.getRowsPerChunk(), rowsPerSheet);
+        List<Shard> shards = new ArrayList<>();
+        int firstRow = 0;
+        do {
+            Shard shard = new Shard(shards.size() + 1, firstRow, Math.min(firstRow + rowsPerSheet, rowCount), new ArrayList<>());
+            for (int from = shard.firstRow(); from < shard.endRow(); from += rowsPerChunk) {
+                shard.chunks().add(new Chunk(from, Math.min(from + rowsPerChunk, shard.endRow())));
+            }
+            shards.add(shard);
+            firstRow = shard.endRow();
+        } while (firstRow < rowCount);
+        return shards;
+    }
+
+    private void writeChunks(ExportDataSource source, List<Shard> shards) throws IOException {
+        SheetXmlWriter sheetXmlWriter = new SheetXmlWriter(source.getHeaders().size());
+        List<Future<?>> tasks = new ArrayList<>();
+        shards.forEach(shard -> shard.chunks().forEach(chunk ->
+                tasks.add(workers.submit(() -> writeChunk(source, sheetXmlWriter, shard, chunk)))));
+        await(tasks);
+    }
+
+    private Void writeChunk(ExportDataSource source, SheetXmlWriter sheetXmlWriter, Shard shard, Chunk chunk) throws IOException {
+        chunk.file = Files.createTempFile("common-ui-export-chunk-", ".xml");
+        try (Writer writer = new OutputStreamWriter(new BufferedOutputStream(Files.newOutputStream(chunk.file), 65536), StandardCharsets.UTF_8)) {
+            for (int rowIndex = chunk.from(); rowIndex < chunk.to(); rowIndex++) {
+                // Row 1 of every sheet holds the headers
+                sheetXmlWriter.writeRow(writer, rowIndex - shard.firstRow() + 2, source.getRow(rowIndex));
+            }
+        }
+        return null;
+    }
+
+    // Shard workbooks are compressed in parallel, the archive then only stores them
+    private void writeZip(OutputStream output, List<String> headers, List<Shard> shards, String baseName,
+                          Map<String, String> details) throws IOException {
+        Map<Shard, Path> workbooks = new HashMap<>();
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (Shard shard : shards) {
+                Path workbook = Files.createTempFile("common-ui-export-shard-", ".xlsx");
+                workbooks.put(shard, workbook);
+                tasks.add(workers.submit(() -> {
+                    try (OutputStream shardOutput = new BufferedOutputStream(Files.newOutputStream(workbook))) {
+                        writeWorkbook(shardOutput, headers, List.of(shard), false, Map.of());
+                    }
+                    return null;
+                }));
+            }
+            await(tasks);
+
+            ZipOutputStream archive = new ZipOutputStream(output);
+            archive.setLevel(Deflater.NO_COMPRESSION);
+            archive.putNextEntry(new ZipEntry(baseName + "-summary.xlsx"));
+            archive.write(summaryWorkbook(shards, "File", shard -> baseName + "-" + shard.number() + ".xlsx", details));
+            archive.closeEntry();
+            for (Shard shard : shards) {
+                archive.putNextEntry(new ZipEntry(baseName + "-" + shard.number() + ".xlsx"));
+                Files.copy(workbooks.get(shard), archive);
+                archive.closeEntry();
+            }
+            archive.finish();
+        } finally {
+            for (Path workbook : workbooks.values()) {
+                Files.deleteIfExists(workbook);
+            }
+        }
+    }
+
+    private void writeWorkbook(OutputStream output, List<String> headers, List<Shard> shards, boolean withSummary,
+                               Map<String, String> details) throws IOException {
+        Map<String, Shard> sheetParts = new HashMap<>();
+        ByteArrayOutputStream template = new ByteArrayOutputStream();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            if (withSummary) {
+                writeSummary(workbook, shards, "Sheet", this::sheetName);
+            }
+            for (Shard shard : shards) {
+                XSSFSheet sheet = workbook.createSheet(shards.size() > 1 ? sheetName(shard) : DATA_SHEET);
+                sheetParts.put(sheet.getPackagePart().getPartName().getName().substring(1), shard);
+            }
+            writeDetails(workbook, details);
+            workbook.write(template);
+        }
+
+        SheetXmlWriter sheetXmlWriter = new SheetXmlWriter(headers.size());
+        ZipOutputStream workbookZip = new ZipOutputStream(new NonClosingOutputStream(output));
+        // The chunks are written once and compressed once, speed matters more than a slightly smaller file
+        workbookZip.setLevel(Deflater.BEST_SPEED);
+        try (ZipInputStream templateZip = new ZipInputStream(new ByteArrayInputStream(template.toByteArray()))) {
+            for (ZipEntry entry = templateZip.getNextEntry(); entry != null; entry = templateZip.getNextEntry()) {
+                workbookZip.putNextEntry(new ZipEntry(entry.getName()));
+                Shard shard = sheetParts.get(entry.getName());
+                if (shard == null) {
+                    templateZip.transferTo(workbookZip);
+                } else {
+                    Writer writer = new OutputStreamWriter(new NonClosingOutputStream(workbookZip), StandardCharsets.UTF_8);
+                    writer.write(SheetXmlWriter.SHEET_HEADER);
+                    sheetXmlWriter.writeRow(writer, 1, headers);
+                    writer.flush();
+                    for (Chunk chunk : shard.chunks()) {
+                        Files.copy(chunk.file, workbookZip);
+                    }
+                    writer.write(SheetXmlWriter.SHEET_FOOTER);
+                    writer.flush();
+                }
+                workbookZip.closeEntry();
+            }
+        }
+        workbookZip.finish();
+    }
+
+    private byte[] summaryWorkbook(List<Shard> shards, String shardColumn, Function<Shard, String> shardName,
+                                   Map<String, String> details) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            writeSummary(workbook, shards, shardColumn, shardName);
+            writeDetails(workbook, details);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            workbook.write(output);
+            return output.toByteArray();
+        }
+    }
+
+    // Row numbers are the positions of the rows in the whole export, 1-based
+    private void writeSummary(XSSFWorkbook workbook, List<Shard> shards, String shardColumn, Function<Shard, String> shardName) {
+        XSSFSheet sheet = workbook.createSheet(SUMMARY_SHEET);
+        writeCells(sheet.createRow(0), shardColumn, "First Row", "Last Row", "Rows");
+        int totalRows = 0;
+        for (Shard shard : shards) {
+            Row row = sheet.createRow(shard.number());
+            row.createCell(0).setCellValue(shardName.apply(shard));
+            row.createCell(1).setCellValue(shard.firstRow() + 1);
+            row.createCell(2).setCellValue(shard.endRow());
+            row.createCell(3).setCellValue(shard.rowCount());
+            totalRows += shard.rowCount();
+        }
+        Row total = sheet.createRow(shards.size() + 1);
+        total.createCell(0).setCellValue("Total");
+        total.createCell(3).setCellValue(totalRows);
+        for (int column = 0; column < 4; column++) {
+            sheet.setColumnWidth(column, 16 * 256);
+        }
+    }
+
+    private void writeDetails(XSSFWorkbook workbook, Map<String, String> details) {
+        if (details.isEmpty()) {
+            return;
+        }
+        XSSFSheet sheet = workbook.createSheet(DETAILS_SHEET);
+        int rowNumber = 0;
+        for (Map.Entry<String, String> detail : details.entrySet()) {
+            writeCells(sheet.createRow(rowNumber++), detail.getKey(), Objects.toString(detail.getValue(), ""));
+        }
+        sheet.setColumnWidth(0, 24 * 256);
+        sheet.setColumnWidth(1, 32 * 256);
+    }
+
+    private void writeCells(Row row, String... values) {
+        for (int i = 0; i < values.length; i++) {
+            row.createCell(i).setCellValue(values[i]);
+        }
+    }
+
+    private String sheetName(Shard shard) {
+        return DATA_SHEET + " " + shard.number();
+    }
+
+    private String baseName(String filename) {
+        String baseName = filename;
+        while (baseName.toLowerCase().endsWith(".xlsx")) {
+            baseName = baseName.substring(0, baseName.length() - ".xlsx".length());
+        }
+        return baseName.isEmpty() ? "export" : baseName;
+    }
+
+    private void await(List<Future<?>> tasks) throws IOException {
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            tasks.forEach(task -> task.cancel(true));
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Export failed", e.getCause());
+        }
+    }
+
+    private void deleteChunks(List<Shard> shards) {
+        shards.forEach(shard -> shard.chunks().forEach(chunk -> {
+            try {
+                if (chunk.file != null) {
+                    Files.deleteIfExists(chunk.file);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Rows from firstRow (inclusive) to endRow (exclusive) of the data source
+    private record Shard(int number, int firstRow, int endRow, List<Chunk> chunks) {
+
+        int rowCount() {
+            return endRow - firstRow;
+        }
+
+    }
+
+    private static final class Chunk {
+
+        private final int from;
+
+        private final int to;
+
+        private volatile Path file;
+
+        private Chunk(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        int from() {
+            return from;
+        }
+
+        int to() {
+            return to;
+        }
+
+    }
+
+    // Entries are written to the stream of the enclosing archive, which has to stay open
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        private NonClosingOutputStream(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package edu.miu.common.ui.export;
+
+import java.util.Optional;
+
+/* Persists the watermark of the last incremental export of every user and table. The InMemoryExportCheckpointStore is
+    registered when the application declares no bean of this type. Applications declare their own, e.g. one backed by
+    a table, so the checkpoints survive restarts and are shared by every node.
+ */
+public interface ExportCheckpointStore {
+
+    // Watermark of the last export the user downloaded completely, empty before the first one
+    Optional<String> findWatermark(String user, String tableName);
+
+    void saveWatermark(String user, String tableName, String watermark);
+
+}
@@ -0,0 +1,22 @@
+package edu.miu.common.ui.export;
+
+import java.util.List;
+import java.util.Map;
+
+/* Rows handed to the ExcelExportEngine. Shards are written in parallel, so getRow is called concurrently from several
+    workers and must only read, every call returning the values of one row in the order of the headers.
+ */
+public interface ExportDataSource {
+
+    List<String> getHeaders();
+
+    int getRowCount();
+
+    List<String> getRow(int rowIndex);
+
+    // Rows shaped like the body of the export button, the headers are the keys of the first row
+    static ExportDataSource of(List<Map<String, String>> tableData) {
+        return new MapListDataSource(tableData);
+    }
+
+}
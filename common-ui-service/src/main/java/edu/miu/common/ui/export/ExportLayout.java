@@ -0,0 +1,12 @@
+package edu.miu.common.ui.export;
+
+// How the shards of an export larger than one sheet are packaged
+public enum ExportLayout {
+
+    // One workbook, one sheet per shard after a summary sheet
+    SHEETS,
+
+    // One workbook per shard and a summary workbook, in a zip archive
+    ZIP
+
+}
@@ -0,0 +1,11 @@
+package edu.miu.common.ui.export;
+
+// Body of the export button read by ExportRequestReader, closing it releases the rows
+public record ExportRequest(String filename, RowBuffer rows) implements AutoCloseable {
+
+    @Override
+    public void close() {
+        rows.close();
+    }
+
+}
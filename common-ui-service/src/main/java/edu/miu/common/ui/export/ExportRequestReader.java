@@ -0,0 +1,139 @@
+package edu.miu.common.ui.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/* Reads the body of the export button, {"filename": "...", "tableData": [{"Header": "value", ...}, ...]}, token by
+    token into a RowBuffer, so neither the body nor the rows are ever held on the heap as a whole. As with ExportExcel,
+    the headers are the keys of the first row and values of other keys are ignored.
+ */
+@Component
+public class ExportRequestReader {
+
+    private static final String XLSX = ".xlsx";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final RowBufferFactory rowBufferFactory;
+
+    public ExportRequestReader(RowBufferFactory rowBufferFactory) {
+        this.rowBufferFactory = rowBufferFactory;
+    }
+
+    public ExportRequest read(InputStream body) throws IOException {
+        String filename = null;
+        RowBuffer rows = null;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "The export request must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "filename" -> filename = workbookName(parser.getValueAsString());
+                    case "tableData" -> {
+                        if (Objects.nonNull(rows)) {
+                            rows.close();
+                        }
+                        rows = readRows(parser);
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (Objects.nonNull(rows)) {
+                rows.close();
+            }
+            throw e;
+        }
+        return new ExportRequest(filename, Objects.isNull(rows) ? rowBufferFactory.create(List.of()) : rows);
+    }
+
+    // Exactly one .xlsx extension, scripts cached from older releases send the name with it twice
+    private String workbookName(String filename) {
+        if (Objects.isNull(filename)) {
+            return null;
+        }
+        String baseName = filename;
+        while (baseName.toLowerCase().endsWith(XLSX)) {
+            baseName = baseName.substring(0, baseName.length() - XLSX.length());
+        }
+        return baseName + XLSX;
+    }
+
+    private RowBuffer readRows(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return rowBufferFactory.create(List.of());
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "tableData must be an array of rows");
+        }
+        RowBuffer rows = null;
+        Map<String, Integer> columns = new HashMap<>();
+        try {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (Objects.isNull(rows)) {
+                    // The first row sets the headers, in the order of its keys
+                    List<String> headers = new ArrayList<>();
+                    List<String> values = new ArrayList<>();
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String header = parser.currentName();
+                        parser.nextToken();
+                        String value = readValue(parser);
+                        Integer column = columns.putIfAbsent(header, headers.size());
+                        if (Objects.isNull(column)) {
+                            headers.add(header);
+                            values.add(value);
+                        } else {
+                            values.set(column, value);
+                        }
+                    }
+                    rows = rowBufferFactory.create(headers);
+                    rows.append(values);
+                } else {
+                    String[] values = new String[columns.size()];
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        Integer column = columns.get(parser.currentName());
+                        parser.nextToken();
+                        String value = readValue(parser);
+                        if (Objects.nonNull(column)) {
+                            values[column] = value;
+                        }
+                    }
+                    rows.append(Arrays.asList(values));
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Every row of tableData must be an object");
+            }
+        } catch (IOException | RuntimeException e) {
+            if (Objects.nonNull(rows)) {
+                rows.close();
+            }
+            throw e;
+        }
+        return Objects.isNull(rows) ? rowBufferFactory.create(List.of()) : rows;
+    }
+
+    // Numbers and booleans are kept as their text, as Jackson binds them to the String values of ExportExcel
+    private static String readValue(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            throw new JsonParseException(parser, "Values of tableData must be text, numbers or booleans");
+        }
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+    }
+
+}
@@ -0,0 +1,384 @@
+package edu.miu.common.ui.export;
+
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/* Keeps generated exports on local disk, addressed by a hash of their content, so the same report exported again is
+    sent from the file instead of being generated once more. The cache is bounded by ui.export-cache.max-size-megabytes
+    and evicts the least recently used exports first. Concurrent requests for an export that is being generated wait
+    for that generation instead of starting their own.
+
+    Files are handed out as leases: an export evicted while it is being sent is deleted once the last lease is closed.
+
+    E.g. try (ExportResultCache.Lease lease = exportResultCache.get(exportResultCache.keyOf(source, filename),
+                 () -> excelExportEngine.export(source, filename))) {
+             lease.transferTo(outputStream);
+         }
+
+    Applications exporting the result of a query may use their own key instead, e.g. a hash of the query, its
+    parameters and the version of the data.
+ */
+@Slf4j
+@Component
+public class ExportResultCache {
+
+    // Part of every key, changing the generated markup must change it so older files are not served
+    private static final String FORMAT_VERSION = "1";
+
+    private final CommonUIConfiguration.ExportCache settings;
+
+    private final CommonUIConfiguration.Export exportSettings;
+
+    private final Path directory;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Access ordered, the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, CompletableFuture<Entry>> generating = new ConcurrentHashMap<>();
+
+    private long totalBytes;
+
+    public ExportResultCache(CommonUIConfiguration commonUIConfiguration) throws IOException {
+        this.settings = commonUIConfiguration.getExportCache();
+        this.exportSettings = commonUIConfiguration.getExport();
+        if (StringUtils.hasText(settings.getDirectory())) {
+            /* The configured directory may be shared with other files or other nodes, every cache owns a subdirectory
+                of it and only ever deletes that one. Entries are not indexed across restarts, each run starts empty.
+             */
+            Path parent = Files.createDirectories(Path.of(settings.getDirectory()));
+            directory = Files.createTempDirectory(parent, "common-ui-export-cache-");
+        } else {
+            directory = Files.createTempDirectory("common-ui-export-cache-");
+        }
+    }
+
+    // Hash of everything that ends up in the file: the headers, the rows, the filename and the sharding
+    public String keyOf(ExportDataSource source, String filename) {
+        return keyOf(source, filename, exportSettings.getLayout());
+    }
+
+    public String keyOf(ExportDataSource source, String filename, ExportLayout layout) {
+        MessageDigest digest = newDigest();
+        update(digest, FORMAT_VERSION);
+        update(digest, filename);
+        update(digest, layout.name());
+        update(digest, Integer.toString(exportSettings.getMaxRowsPerSheet()));
+        update(digest, source.getHeaders());
+        for (int rowIndex = 0; rowIndex < source.getRowCount(); rowIndex++) {
+            update(digest, source.getRow(rowIndex));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /* Leases the export cached under the key, generating it with the generator on a miss. The generator only runs on a
+        miss, so expensive preparation such as admission control belongs inside it. Generated files are moved into the
+        cache, the generator must not use them afterwards.
+     */
+    public Lease get(String key, Callable<ExcelExport> generator) throws Exception {
+        if (!settings.isEnabled()) {
+            ExcelExport export = generator.call();
+            return new Lease(new Entry(key, export.file(), export, export.size()), true);
+        }
+
+        Lease lease = lease(key);
+        if (lease != null) {
+            return lease;
+        }
+
+        CompletableFuture<Entry> generation = new CompletableFuture<>();
+        CompletableFuture<Entry> running = generating.putIfAbsent(key, generation);
+        if (running != null) {
+            try {
+                return leaseOrRetry(key, running.join(), generator);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+
+        try {
+            // Another request may have completed the same export between the lookup and the registration
+            lease = lease(key);
+            if (lease == null) {
+                lease = store(key, generator.call());
+            }
+            generation.complete(lease.entry);
+            return lease;
+        } catch (Exception | Error e) {
+            generation.completeExceptionally(e);
+            throw e;
+        } finally {
+            generating.remove(key, generation);
+        }
+    }
+
+    public long getSizeBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getEntryCount() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lease lease(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            return entry == null ? null : acquire(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The export generated by another request may already be evicted when it is too large for the cache
+    private Lease leaseOrRetry(String key, Entry generated, Callable<ExcelExport> generator) throws Exception {
+        Lease lease = lease(key);
+        if (lease != null) {
+            return lease;
+        }
+        log.debug("Export {} was evicted before it could be leased, generating it again", generated.key);
+        return get(key, generator);
+    }
+
+    // The lease is taken before evicting, so an export larger than the whole cache is still sent once
+    private Lease store(String key, ExcelExport export) throws IOException {
+        /* Keys supplied by applications may contain any character, the file is named by their hash. An evicted entry
+            may still be leased when its key is generated again, so every entry gets a file of its own and only the
+            empty file created for it here is replaced.
+         */
+        String name = HexFormat.of().formatHex(newDigest().digest(key.getBytes(StandardCharsets.UTF_8)));
+        Path file = null;
+        try {
+            file = Files.createTempFile(directory, name + "-", ExcelExport.ZIP_CONTENT_TYPE.equals(export.contentType()) ? ".zip" : ".xlsx");
+            Files.move(export.file(), file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            export.close();
+            if (file != null) {
+                delete(file);
+            }
+            throw e;
+        }
+        Entry entry = new Entry(key, file, export, Files.size(file));
+        lock.lock();
+        try {
+            entries.put(key, entry);
+            totalBytes += entry.size;
+            Lease lease = acquire(entry);
+            evict();
+            log.debug("Export {} of {} bytes cached, the cache holds {} bytes", key, entry.size, totalBytes);
+            return lease;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Least recently used entries first, files still being sent are deleted when their last lease is closed
+    private void evict() {
+        long maxBytes = settings.getMaxSizeMegabytes() * 1024 * 1024;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            iterator.remove();
+            totalBytes -= entry.size;
+            entry.evicted = true;
+            if (entry.leases == 0) {
+                delete(entry.file);
+            }
+        }
+    }
+
+    private Lease acquire(Entry entry) {
+        lock.lock();
+        try {
+            entry.leases++;
+            return new Lease(entry, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Entry entry) {
+        lock.lock();
+        try {
+            entry.leases--;
+            if (entry.leases == 0 && entry.evicted) {
+                delete(entry.file);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void update(MessageDigest digest, List<String> values) {
+        digest.update((byte) '[');
+        values.forEach(value -> update(digest, value));
+        digest.update((byte) ']');
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+        } else {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            // Separator so that ("ab", "c") and ("a", "bc") produce different hashes
+            digest.update((byte) 0x1F);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available in this JVM", e);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete cached export {}", file, e);
+        }
+    }
+
+    // Only the directory created by this cache, never the configured one
+    @PreDestroy
+    public void shutdown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    private static final class Entry {
+
+        private final String key;
+
+        private final Path file;
+
+        private final ExcelExport export;
+
+        private final long size;
+
+        // Guarded by the lock of the cache
+        private int leases;
+
+        private boolean evicted;
+
+        private Entry(String key, Path file, ExcelExport export, long size) {
+            this.key = key;
+            this.file = file;
+            this.export = export;
+            this.size = size;
+        }
+
+    }
+
+    // Access to a cached export, the file stays in place until the lease is closed. Closing it again has no effect.
+    public final class Lease implements AutoCloseable {
+
+        private final Entry entry;
+
+        // Uncached exports are owned by their only lease
+        private final boolean owned;
+
+        // A streamed lease is closed by the response body and by the completion of the request, on different threads
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(Entry entry, boolean owned) {
+            this.entry = entry;
+            this.owned = owned;
+        }
+
+        public String filename() {
+            return entry.export.filename();
+        }
+
+        public String contentType() {
+            return entry.export.contentType();
+        }
+
+        public int rowCount() {
+            return entry.export.rowCount();
+        }
+
+        public long size() {
+            return entry.size;
+        }
+
+        public String key() {
+            return entry.key;
+        }
+
+        /* Buffered copy, not a zero-copy transfer: the output stream of the response is wrapped in a channel, so the file
+            channel reads the file into a small heap buffer that is written to the stream. The export is never held on
+            the heap as a whole.
+         */
+        public void transferTo(OutputStream outputStream) throws IOException {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            try (FileChannel source = FileChannel.open(entry.file, StandardOpenOption.READ)) {
+                long position = 0;
+                long size = source.size();
+                while (position < size) {
+                    position += source.transferTo(position, size - position, target);
+                }
+            }
+            outputStream.flush();
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            if (owned) {
+                try {
+                    Files.deleteIfExists(entry.file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                release(entry);
+            }
+        }
+
+    }
+
+}
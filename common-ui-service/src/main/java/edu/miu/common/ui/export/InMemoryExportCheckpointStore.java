@@ -0,0 +1,34 @@
+package edu.miu.common.ui.export;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Default ExportCheckpointStore, checkpoints of the most recent users of this node, lost on restart
+public class InMemoryExportCheckpointStore implements ExportCheckpointStore {
+
+    // Checkpoints are only saved for authenticated users, the least recently used are dropped first
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<String, String> watermarks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    @Override
+    public synchronized Optional<String> findWatermark(String user, String tableName) {
+        return Optional.ofNullable(watermarks.get(key(user, tableName)));
+    }
+
+    @Override
+    public synchronized void saveWatermark(String user, String tableName, String watermark) {
+        watermarks.put(key(user, tableName), watermark);
+    }
+
+    private String key(String user, String tableName) {
+        return user + '\u0000' + tableName;
+    }
+
+}
@@ -0,0 +1,11 @@
+package edu.miu.common.ui.export;
+
+// Generated incremental export of a table, the watermark is the one of its last row or the given one without new rows
+public record IncrementalExport(ExcelExport export, String tableName, String since, String watermark) implements AutoCloseable {
+
+    @Override
+    public void close() {
+        export.close();
+    }
+
+}
@@ -0,0 +1,29 @@
+package edu.miu.common.ui.export;
+
+/* Supplies the rows of a table registered for incremental export. The rows changed after the watermark are appended in
+    ascending order of the watermark column, every row in the order of the registered headers, and all of them when the
+    watermark is null. The watermark is the text of the watermark column of the last row of an earlier export, e.g. an
+    ISO timestamp of the update or an increasing id, which the provider parses back for its query.
+
+    The order is a contract of the provider, it is not checked: the service only knows the watermarks as text, so it
+    takes the watermark of the last appended row as the highest one. Rows appended out of order move the checkpoint
+    past rows that were never exported, e.g. a query ordered by id with an update timestamp as the watermark column.
+
+    Ties are the provider's problem as well. The next export starts after the watermark, so rows sharing the watermark
+    of the last exported row that were not part of the export, e.g. committed later with the same timestamp, are
+    missed by a "greater than" query. A watermark column with unique values, an increasing id or a timestamp set by
+    the database at commit time with the id as a tie-breaker in the query, avoids it.
+ */
+@FunctionalInterface
+public interface IncrementalExportProvider {
+
+    void appendRowsSince(String watermark, RowBuffer rows);
+
+    /* Rows the export of the watermark will hold, e.g. from a count query, or -1 when unknown. Admission is asked
+        before the rows are read, an export of unknown size is charged ui.admission.budget-cells and runs alone.
+     */
+    default long estimateRowsSince(String watermark) {
+        return -1;
+    }
+
+}
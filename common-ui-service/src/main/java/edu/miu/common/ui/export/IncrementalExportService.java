@@ -0,0 +1,117 @@
+package edu.miu.common.ui.export;
+
+import edu.miu.common.ui.admission.AdmissionControl;
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Exports only the rows of a table changed since the last export of the user, instead of the whole table every time.
+    Tables are registered with their headers, the watermark column and the IncrementalExportProvider reading the rows
+    after a watermark. The watermark of the last exported row is written in the "Details" sheet of the workbook and
+    becomes the checkpoint of the user once the download is complete, the next export starting from it. Checkpoints
+    are only kept for authenticated users: anonymous users share their address behind a proxy, and a checkpoint moved
+    by one of them would silently hide rows from the others.
+
+    E.g. incrementalExportService.register("students", List.of("Id", "Name", "Email", "Updated At"), "Updated At",
+             (watermark, rows) -> studentRepository.streamUpdatedAfter(Objects.isNull(watermark) ? Instant.EPOCH : Instant.parse(watermark))
+                     .forEach(student -> rows.append(List.of(student.getId().toString(), student.getName(),
+                             student.getEmail(), student.getUpdatedAt().toString()))));
+
+    Exports are downloaded from GET /export/incremental/{tableName}, or generated with export directly.
+ */
+@Slf4j
+@Component
+public class IncrementalExportService {
+
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+
+    private final ExcelExportEngine excelExportEngine;
+
+    private final RowBufferFactory rowBufferFactory;
+
+    private final AdmissionControl admissionControl;
+
+    private final ExportCheckpointStore exportCheckpointStore;
+
+    private final CommonUIConfiguration.Admission admissionSettings;
+
+    public IncrementalExportService(ExcelExportEngine excelExportEngine, RowBufferFactory rowBufferFactory,
+                                    AdmissionControl admissionControl, ExportCheckpointStore exportCheckpointStore,
+                                    CommonUIConfiguration commonUIConfiguration) {
+        this.excelExportEngine = excelExportEngine;
+        this.rowBufferFactory = rowBufferFactory;
+        this.admissionControl = admissionControl;
+        this.exportCheckpointStore = exportCheckpointStore;
+        this.admissionSettings = commonUIConfiguration.getAdmission();
+    }
+
+    public void register(String tableName, List<String> headers, String watermarkColumn, IncrementalExportProvider provider) {
+        int watermarkIndex = headers.indexOf(watermarkColumn);
+        if (watermarkIndex < 0) {
+            throw new IllegalArgumentException("Watermark column " + watermarkColumn + " is not one of the headers of table " + tableName);
+        }
+        tables.put(tableName, new Table(List.copyOf(headers), watermarkColumn, watermarkIndex, provider));
+    }
+
+    public boolean isRegistered(String tableName) {
+        return tables.containsKey(tableName);
+    }
+
+    public Optional<String> findCheckpoint(String user, String tableName) {
+        return exportCheckpointStore.findWatermark(user, tableName);
+    }
+
+    public void saveCheckpoint(String user, String tableName, String watermark) {
+        if (Objects.nonNull(watermark)) {
+            exportCheckpointStore.saveWatermark(user, tableName, watermark);
+        }
+    }
+
+    /* Rows changed after the watermark, every row when it is null. Admission is granted before the provider reads the
+        rows, for the cells it estimates, so a request for the whole table waits its turn like any other large export.
+     */
+    public IncrementalExport export(HttpServletRequest request, String tableName, String since) throws IOException {
+        Table table = tables.get(tableName);
+        if (Objects.isNull(table)) {
+            throw new IllegalArgumentException("No incremental export registered for: " + tableName);
+        }
+        long start = System.currentTimeMillis();
+        long estimatedRows = table.provider().estimateRowsSince(since);
+        long cost = estimatedRows < 0 ? admissionSettings.getBudgetCells() : estimatedRows * table.headers().size();
+        AdmissionControl.Permit permit = admissionControl.acquire(request, cost);
+        try (permit; RowBuffer rows = rowBufferFactory.create(table.headers())) {
+            table.provider().appendRowsSince(since, rows);
+            String watermark = rows.isEmpty() ? since : rows.getRow(rows.getRowCount() - 1).get(table.watermarkIndex());
+            if (!rows.isEmpty() && Objects.isNull(watermark)) {
+                throw new IllegalStateException("Last row of the incremental export of " + tableName + " has no " + table.watermarkColumn());
+            }
+
+            Map<String, String> details = new LinkedHashMap<>();
+            details.put("Table", tableName);
+            details.put("Watermark Column", table.watermarkColumn());
+            details.put("Since", Objects.toString(since, ""));
+            details.put("Watermark", Objects.toString(watermark, ""));
+            details.put("Rows", String.valueOf(rows.getRowCount()));
+            details.put("Exported At", Instant.now().toString());
+
+            ExcelExport export = excelExportEngine.export(rows, tableName + ".xlsx", details);
+            log.debug("Incremental export of {} since {} up to {}: {} rows in {} ms", tableName, since, watermark,
+                    rows.getRowCount(), System.currentTimeMillis() - start);
+            return new IncrementalExport(export, tableName, since, watermark);
+        }
+    }
+
+    private record Table(List<String> headers, String watermarkColumn, int watermarkIndex, IncrementalExportProvider provider) {
+    }
+
+}
@@ -0,0 +1,36 @@
+package edu.miu.common.ui.export;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class MapListDataSource implements ExportDataSource {
+
+    private final List<Map<String, String>> tableData;
+
+    private final List<String> headers;
+
+    MapListDataSource(List<Map<String, String>> tableData) {
+        this.tableData = tableData;
+        this.headers = tableData.isEmpty() ? List.of() : List.copyOf(tableData.get(0).keySet());
+    }
+
+    @Override
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public int getRowCount() {
+        return tableData.size();
+    }
+
+    @Override
+    public List<String> getRow(int rowIndex) {
+        Map<String, String> rowData = tableData.get(rowIndex);
+        List<String> values = new ArrayList<>(headers.size());
+        headers.forEach(header -> values.add(rowData.get(header)));
+        return values;
+    }
+
+}
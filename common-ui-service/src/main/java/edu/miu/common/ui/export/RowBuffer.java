@@ -0,0 +1,370 @@
+package edu.miu.common.ui.export;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/* Rows of text kept in a compact binary form instead of as objects, for reports too large for the heap. Every value is
+    stored as its UTF-8 bytes after a varint of its length, with an index of the row offsets on the side, so a row of ten
+    short values costs about a hundred bytes instead of a Map with its entries and strings.
+
+    Rows are kept in memory up to ui.row-buffer.memory-threshold-megabytes, then the buffer spills to a temporary file
+    which is memory mapped once the rows are read, leaving the caching of the pages to the operating system.
+
+    Rows are appended first and read afterwards, the first read seals the buffer. Reads never modify it, so the export
+    workers read rows concurrently. The buffer is both an ExportDataSource and a List of rows as Maps keyed by the
+    headers, decoded one at a time, so the same buffer is exported or handed to TableLayoutBuilder.withTableList,
+    which closes it once the page is rendered. Iterating the list is the sequential cursor over the rows.
+
+    E.g. try (RowBuffer rows = rowBufferFactory.create(List.of("Name", "Email"))) {
+             repository.streamAll().forEach(student -> rows.append(List.of(student.getName(), student.getEmail())));
+             return excelExportEngine.export(rows, "students.xlsx");
+         }
+ */
+@Slf4j
+public final class RowBuffer extends AbstractList<Map<String, String>> implements ExportDataSource, RandomAccess, AutoCloseable {
+
+    // Rows never cross the boundary of a mapped region, so every row is decoded from a single mapping
+    static final int REGION_BYTES = 1 << 30;
+
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final List<String> headers;
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private final long memoryThresholdBytes;
+
+    private final Path directory;
+
+    private byte[] memory = new byte[8 * 1024];
+
+    private byte[] encoded = new byte[256];
+
+    private long[] offsets = new long[1024];
+
+    private int rowCount;
+
+    private long size;
+
+    private Path file;
+
+    private FileChannel channel;
+
+    private ByteBuffer writeBuffer;
+
+    // Whole memory or the mapped regions of the file, set when the buffer is sealed
+    private ByteBuffer[] regions;
+
+    private volatile boolean sealed;
+
+    private volatile boolean closed;
+
+    RowBuffer(List<String> headers, long memoryThresholdBytes, Path directory) {
+        this.headers = List.copyOf(headers);
+        for (int column = 0; column < this.headers.size(); column++) {
+            columns.putIfAbsent(this.headers.get(column), column);
+        }
+        this.memoryThresholdBytes = Math.min(memoryThresholdBytes, REGION_BYTES);
+        this.directory = directory;
+    }
+
+    // Values in the order of the headers, missing values are null and extra values are ignored
+    public void append(List<String> values) {
+        if (sealed || closed) {
+            throw new IllegalStateException("Rows can not be appended once the buffer is read or closed");
+        }
+        int length = encode(values);
+        if (rowCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        try {
+            if (Objects.isNull(file) && size + length > memoryThresholdBytes) {
+                spill();
+            }
+            if (Objects.isNull(file)) {
+                ensureMemory(size + length);
+                System.arraycopy(encoded, 0, memory, (int) size, length);
+            } else {
+                write(length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error occurred while spilling the rows to " + file, e);
+        }
+        offsets[rowCount++] = size;
+        size += length;
+    }
+
+    // Values by header, e.g. the rows sent by the export button
+    public void append(Map<String, ?> row) {
+        String[] values = new String[headers.size()];
+        for (int column = 0; column < values.length; column++) {
+            Object value = row.get(headers.get(column));
+            values[column] = Objects.isNull(value) ? null : value.toString();
+        }
+        append(Arrays.asList(values));
+    }
+
+    @Override
+    public boolean add(Map<String, String> row) {
+        append(row);
+        return true;
+    }
+
+    @Override
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public List<String> getRow(int rowIndex) {
+        Objects.checkIndex(rowIndex, rowCount);
+        ByteBuffer[] sealedRegions = seal();
+        long offset = offsets[rowIndex];
+        ByteBuffer region = sealedRegions[(int) (offset / REGION_BYTES)];
+        int position = (int) (offset % REGION_BYTES);
+        String[] values = new String[headers.size()];
+        for (int column = 0; column < values.length; column++) {
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = region.get(position++);
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            // 0 is a null value, the length of the others is stored plus one
+            if (length > 0) {
+                values[column] = decode(region, position, length - 1);
+                position += length - 1;
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    @Override
+    public Map<String, String> get(int index) {
+        return new Row(getRow(index));
+    }
+
+    @Override
+    public int size() {
+        return rowCount;
+    }
+
+    public boolean isSpilled() {
+        return Objects.nonNull(file);
+    }
+
+    // Bytes taken by the rows, in memory or on disk, the index of the offsets aside
+    public long getSizeBytes() {
+        return size;
+    }
+
+    // Never the rows, a buffer may hold millions of them and be closed when it is logged
+    @Override
+    public String toString() {
+        return "RowBuffer[rows=" + rowCount + ", bytes=" + size + ", spilled=" + isSpilled() + ", closed=" + closed + "]";
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        regions = null;
+        memory = null;
+        try {
+            if (Objects.nonNull(channel)) {
+                channel.close();
+            }
+            if (Objects.nonNull(file)) {
+                // Mapped pages stay readable until they are unmapped, deleting the file only removes its name
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete the spilled rows {}", file, e);
+        }
+    }
+
+    private int encode(List<String> values) {
+        int length = 0;
+        for (int column = 0; column < headers.size(); column++) {
+            String value = column < values.size() ? values.get(column) : null;
+            byte[] bytes = Objects.isNull(value) ? null : value.getBytes(StandardCharsets.UTF_8);
+            int valueLength = Objects.isNull(bytes) ? 0 : bytes.length + 1;
+            ensureEncoded(length + 5 + (Objects.isNull(bytes) ? 0 : bytes.length));
+            while ((valueLength & ~0x7F) != 0) {
+                encoded[length++] = (byte) ((valueLength & 0x7F) | 0x80);
+                valueLength >>>= 7;
+            }
+            encoded[length++] = (byte) valueLength;
+            if (Objects.nonNull(bytes)) {
+                System.arraycopy(bytes, 0, encoded, length, bytes.length);
+                length += bytes.length;
+            }
+        }
+        if (length > REGION_BYTES) {
+            throw new IllegalArgumentException("Row of " + length + " bytes is larger than a region of the buffer");
+        }
+        return length;
+    }
+
+    private void ensureEncoded(int capacity) {
+        if (capacity > encoded.length) {
+            encoded = Arrays.copyOf(encoded, Math.max(capacity, encoded.length * 2));
+        }
+    }
+
+    private void ensureMemory(long capacity) {
+        if (capacity > memory.length) {
+            memory = Arrays.copyOf(memory, (int) Math.min(Math.max(capacity, memory.length * 2L), memoryThresholdBytes));
+        }
+    }
+
+    private void spill() throws IOException {
+        file = Objects.isNull(directory)
+                ? Files.createTempFile("common-ui-rows-", ".bin")
+                : Files.createTempFile(directory, "common-ui-rows-", ".bin");
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer rows = ByteBuffer.wrap(memory, 0, (int) size);
+        while (rows.hasRemaining()) {
+            channel.write(rows);
+        }
+        memory = null;
+        writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        log.debug("Row buffer of {} rows spilled to {}", rowCount, file);
+    }
+
+    private void write(int length) throws IOException {
+        // A row that would cross into the next region starts at the beginning of it, the gap stays a sparse hole
+        if (size / REGION_BYTES != (size + length - 1) / REGION_BYTES) {
+            flush();
+            size = (size / REGION_BYTES + 1) * REGION_BYTES;
+            channel.position(size);
+        }
+        if (length > writeBuffer.remaining()) {
+            flush();
+        }
+        if (length > writeBuffer.capacity()) {
+            ByteBuffer row = ByteBuffer.wrap(encoded, 0, length);
+            while (row.hasRemaining()) {
+                channel.write(row);
+            }
+        } else {
+            writeBuffer.put(encoded, 0, length);
+        }
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    private ByteBuffer[] seal() {
+        if (!sealed) {
+            synchronized (this) {
+                if (!sealed) {
+                    sealRegions();
+                    sealed = true;
+                }
+            }
+        }
+        if (closed) {
+            throw new IllegalStateException("The row buffer is closed");
+        }
+        return regions;
+    }
+
+    private void sealRegions() {
+        if (closed) {
+            throw new IllegalStateException("The row buffer is closed");
+        }
+        if (Objects.isNull(file)) {
+            regions = new ByteBuffer[]{ByteBuffer.wrap(memory, 0, (int) size)};
+            return;
+        }
+        try {
+            flush();
+            writeBuffer = null;
+            int regionCount = (int) ((size + REGION_BYTES - 1) / REGION_BYTES);
+            regions = new ByteBuffer[Math.max(regionCount, 1)];
+            for (int region = 0; region < regionCount; region++) {
+                long start = (long) region * REGION_BYTES;
+                regions[region] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_BYTES, size - start));
+            }
+            channel.close();
+            channel = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error occurred while mapping the rows of " + file, e);
+        }
+    }
+
+    private static String decode(ByteBuffer region, int position, int length) {
+        if (region.hasArray()) {
+            return new String(region.array(), region.arrayOffset() + position, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        region.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // One row read by header, as CommonUtils.getValueByHeader reads Map rows
+    private final class Row extends AbstractMap<String, String> {
+
+        private final List<String> values;
+
+        private Row(List<String> values) {
+            this.values = values;
+        }
+
+        @Override
+        public String get(Object key) {
+            Integer column = columns.get(key);
+            return Objects.isNull(column) ? null : values.get(column);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return columns.containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            Map<String, String> entries = new LinkedHashMap<>();
+            for (int column = 0; column < headers.size(); column++) {
+                entries.putIfAbsent(headers.get(column), values.get(column));
+            }
+            return Collections.unmodifiableMap(entries).entrySet();
+        }
+
+    }
+
+}
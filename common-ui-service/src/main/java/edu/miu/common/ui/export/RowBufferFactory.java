@@ -0,0 +1,25 @@
+package edu.miu.common.ui.export;
+
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+// Creates the RowBuffers with the threshold and the directory of ui.row-buffer
+@Component
+public class RowBufferFactory {
+
+    private final CommonUIConfiguration.RowBuffer settings;
+
+    public RowBufferFactory(CommonUIConfiguration commonUIConfiguration) {
+        this.settings = commonUIConfiguration.getRowBuffer();
+    }
+
+    public RowBuffer create(List<String> headers) {
+        return new RowBuffer(headers, settings.getMemoryThresholdMegabytes() * 1024L * 1024L,
+                StringUtils.hasText(settings.getDirectory()) ? Path.of(settings.getDirectory()) : null);
+    }
+
+}
@@ -0,0 +1,71 @@
+package edu.miu.common.ui.export;
+
+import org.apache.poi.ss.util.CellReference;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/* Writes the SpreadsheetML of worksheet rows with inline strings, the same markup SXSSF streams.
+    Rows of a sheet are independent of each other, so ranges of rows are written by different workers and the
+    parts are concatenated in order between the header and the footer of the sheet.
+ */
+final class SheetXmlWriter {
+
+    static final String SHEET_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>";
+
+    static final String SHEET_FOOTER = "</sheetData></worksheet>";
+
+    private final String[] columnNames;
+
+    SheetXmlWriter(int columnCount) {
+        columnNames = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnNames[i] = CellReference.convertNumToColString(i);
+        }
+    }
+
+    // Row numbers are 1-based like the r attribute, the header row of every sheet being row 1
+    void writeRow(Writer writer, int rowNumber, List<String> values) throws IOException {
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(rowNumber));
+        writer.write("\">");
+        for (int column = 0; column < values.size() && column < columnNames.length; column++) {
+            String value = values.get(column);
+            if (value == null) {
+                continue;
+            }
+            writer.write("<c r=\"");
+            writer.write(columnNames[column]);
+            writer.write(Integer.toString(rowNumber));
+            writer.write("\" t=\"inlineStr\"><is><t");
+            if (!value.isEmpty() && (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)))) {
+                writer.write(" xml:space=\"preserve\"");
+            }
+            writer.write('>');
+            writeEscaped(writer, value);
+            writer.write("</t></is></c>");
+        }
+        writer.write("</row>");
+    }
+
+    // Control characters are not allowed in XML 1.0 and would make Excel reject the whole file, they are dropped
+    private static void writeEscaped(Writer writer, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                case '&' -> writer.write("&amp;");
+                case '\t', '\n', '\r' -> writer.write(c);
+                default -> {
+                    if (c >= 0x20 && c != 0xFFFE && c != 0xFFFF) {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+}
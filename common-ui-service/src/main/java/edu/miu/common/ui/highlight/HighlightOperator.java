@@ -0,0 +1,19 @@
+package edu.miu.common.ui.highlight;
+
+public enum HighlightOperator {
+
+    EQ,
+    NE,
+    GT,
+    GE,
+    LT,
+    LE,
+    // The text of the value contains the rule value, ignoring case
+    CONTAINS,
+    // The rule value is a comma separated list
+    IN,
+    // Null or blank, the rule value is not used
+    EMPTY,
+    NOT_EMPTY
+
+}
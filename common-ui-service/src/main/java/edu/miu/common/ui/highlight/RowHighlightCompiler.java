@@ -0,0 +1,157 @@
+package edu.miu.common.ui.highlight;
+
+import edu.miu.common.ui.utils.CommonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/* Compiles row highlight rules into predicates once. The rule values are parsed when the rule is compiled, so
+    evaluating a row only reads its field through the cached accessors of CommonUtils and compares.
+    Tables are usually built with the same rules on every request, compiled highlighters are cached by their rules.
+ */
+@Slf4j
+@Component
+public class RowHighlightCompiler {
+
+    // Guards against applications that build rule values dynamically, those are compiled without being cached
+    static final int MAX_CACHED_HIGHLIGHTERS = 256;
+
+    private final CommonUtils commonUtils;
+
+    private final Map<List<RowHighlightRule>, RowHighlighter> highlighters = new ConcurrentHashMap<>();
+
+    public RowHighlightCompiler(CommonUtils commonUtils) {
+        this.commonUtils = commonUtils;
+    }
+
+    public RowHighlighter compile(List<RowHighlightRule> rules) {
+        RowHighlighter highlighter = highlighters.get(rules);
+        if (highlighter != null) {
+            return highlighter;
+        }
+        List<RowHighlighter.CompiledRule> compiled = new ArrayList<>(rules.size());
+        rules.forEach(rule -> compiled.add(compileRule(rule)));
+        highlighter = new RowHighlighter(List.copyOf(compiled), commonUtils);
+        if (highlighters.size() < MAX_CACHED_HIGHLIGHTERS) {
+            // Rules are mutable beans, the key is a copy of the rules as compiled
+            highlighters.putIfAbsent(rules.stream().map(this::copy).toList(), highlighter);
+        }
+        return highlighter;
+    }
+
+    private RowHighlighter.CompiledRule compileRule(RowHighlightRule rule) {
+        if (!StringUtils.hasText(rule.getField())) {
+            throw new IllegalArgumentException("Row highlight rule without a field: " + rule);
+        }
+        String cssClass = StringUtils.hasText(rule.getCssClass()) ? rule.getCssClass()
+                : Objects.nonNull(rule.getColor()) ? RowHighlighter.cssClass(rule.getColor()) : null;
+        if (Objects.isNull(cssClass)) {
+            throw new IllegalArgumentException("Row highlight rule without a CSS class or a color: " + rule);
+        }
+
+        String field = rule.getField();
+        Function<Object, Object> accessor = row -> commonUtils.getRawValueByHeader(row, field);
+        Predicate<Object> condition = condition(rule.getOperator() == null ? HighlightOperator.EQ : rule.getOperator(), rule.getValue());
+        return new RowHighlighter.CompiledRule(row -> condition.test(accessor.apply(row)), cssClass, rule.getColor(), rule.getLegend());
+    }
+
+    private Predicate<Object> condition(HighlightOperator operator, String expected) {
+        return switch (operator) {
+            case EMPTY -> value -> Objects.isNull(value) || value.toString().isBlank();
+            case NOT_EMPTY -> value -> Objects.nonNull(value) && !value.toString().isBlank();
+            case EQ -> equalTo(expected);
+            case NE -> equalTo(expected).negate();
+            case CONTAINS -> {
+                String part = Objects.requireNonNullElse(expected, "").toLowerCase(Locale.ROOT);
+                yield value -> Objects.nonNull(value) && text(value).toLowerCase(Locale.ROOT).contains(part);
+            }
+            case IN -> {
+                Set<String> values = Arrays.stream(Objects.requireNonNullElse(expected, "").split(","))
+                        .map(String::trim).collect(Collectors.toSet());
+                yield value -> Objects.nonNull(value) && values.contains(text(value));
+            }
+            case GT -> comparing(expected, result -> result > 0);
+            case GE -> comparing(expected, result -> result >= 0);
+            case LT -> comparing(expected, result -> result < 0);
+            case LE -> comparing(expected, result -> result <= 0);
+        };
+    }
+
+    // Numbers are compared by value, so 100 equals 100.0, everything else by its text
+    private Predicate<Object> equalTo(String expected) {
+        BigDecimal number = number(expected);
+        return value -> {
+            if (Objects.isNull(value)) {
+                return Objects.isNull(expected);
+            }
+            if (value instanceof Number actual && number != null) {
+                return compare(actual, number) == 0;
+            }
+            return text(value).equals(expected);
+        };
+    }
+
+    /* Numbers are compared numerically when the rule value is a number, other values by their text, which orders
+        ISO dates and times correctly. Null never matches an ordering.
+     */
+    private Predicate<Object> comparing(String expected, Predicate<Integer> accept) {
+        if (Objects.isNull(expected)) {
+            throw new IllegalArgumentException("Ordering row highlight rules need a value");
+        }
+        BigDecimal number = number(expected);
+        return value -> {
+            if (Objects.isNull(value)) {
+                return false;
+            }
+            if (number != null && value instanceof Number actual) {
+                return accept.test(compare(actual, number));
+            }
+            if (number != null) {
+                BigDecimal actual = number(text(value));
+                return actual != null && accept.test(actual.compareTo(number));
+            }
+            return accept.test(text(value).compareTo(expected));
+        };
+    }
+
+    // Primitive wrappers are compared as doubles, which is exact enough for highlighting and avoids a parse per row
+    private int compare(Number actual, BigDecimal expected) {
+        if (actual instanceof BigDecimal decimal) {
+            return decimal.compareTo(expected);
+        }
+        return Double.compare(actual.doubleValue(), expected.doubleValue());
+    }
+
+    private String text(Object value) {
+        return value instanceof Enum<?> constant ? constant.name() : value.toString();
+    }
+
+    private BigDecimal number(String text) {
+        if (Objects.isNull(text)) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private RowHighlightRule copy(RowHighlightRule rule) {
+        return new RowHighlightRule(rule.getField(), rule.getOperator(), rule.getValue(), rule.getCssClass(), rule.getColor(), rule.getLegend());
+    }
+
+}
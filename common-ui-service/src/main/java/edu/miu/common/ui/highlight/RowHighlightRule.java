@@ -0,0 +1,54 @@
+package edu.miu.common.ui.highlight;
+
+import edu.miu.common.ui.service.contract.TableColor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* Highlights the rows whose field compares to the value, with the CSS class or else the class of the TableColor.
+    The field is an attribute name as used by the table, nested fields included. Rules with a legend label are
+    listed in the legend of the table.
+
+    E.g. in the UI profile:
+        ui:
+          row-highlights:
+            students:
+              - field: credits
+                operator: GT
+                value: 100
+                color: GREEN
+                legend: Honors
+
+    or RowHighlightRule.of("status", HighlightOperator.EQ, "SUSPENDED", TableColor.RED).withLegend("Suspended")
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RowHighlightRule {
+
+    private String field;
+
+    private HighlightOperator operator = HighlightOperator.EQ;
+
+    private String value;
+
+    private String cssClass;
+
+    private TableColor color;
+
+    private String legend;
+
+    public static RowHighlightRule of(String field, HighlightOperator operator, String value, TableColor color) {
+        return new RowHighlightRule(field, operator, value, null, color, null);
+    }
+
+    public static RowHighlightRule of(String field, HighlightOperator operator, String value, String cssClass) {
+        return new RowHighlightRule(field, operator, value, cssClass, null, null);
+    }
+
+    public RowHighlightRule withLegend(String legend) {
+        this.legend = legend;
+        return this;
+    }
+
+}
@@ -0,0 +1,76 @@
+package edu.miu.common.ui.highlight;
+
+import edu.miu.common.ui.service.contract.TableColor;
+import edu.miu.common.ui.utils.CommonUtils;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/* Compiled row highlight rules of a table, the first matching rule gives the CSS class of the row and
+    CommonUtils.settingRowBackGroundColor is the fallback. The table fragment asks once per row, not once per cell.
+ */
+public final class RowHighlighter {
+
+    private final List<CompiledRule> rules;
+
+    private final CommonUtils commonUtils;
+
+    private final Map<String, String> legend;
+
+    private final Map<TableColor, String> colorLegend;
+
+    RowHighlighter(List<CompiledRule> rules, CommonUtils commonUtils) {
+        this.rules = rules;
+        this.commonUtils = commonUtils;
+        Map<String, String> legend = new LinkedHashMap<>();
+        Map<TableColor, String> colorLegend = new EnumMap<>(TableColor.class);
+        rules.stream().filter(rule -> Objects.nonNull(rule.legend())).forEach(rule -> {
+            legend.putIfAbsent(rule.cssClass(), rule.legend());
+            if (Objects.nonNull(rule.color())) {
+                colorLegend.putIfAbsent(rule.color(), rule.legend());
+            }
+        });
+        this.legend = Collections.unmodifiableMap(legend);
+        this.colorLegend = Collections.unmodifiableMap(colorLegend);
+    }
+
+    public String rowClass(Object row) {
+        for (CompiledRule rule : rules) {
+            if (rule.predicate().test(row)) {
+                return rule.cssClass();
+            }
+        }
+        String fallback = commonUtils.settingRowBackGroundColor(row);
+        return Objects.isNull(fallback) ? "" : fallback;
+    }
+
+    // CSS class to legend label, in rule order
+    public Map<String, String> getLegend() {
+        return legend;
+    }
+
+    // Legend of the rules with a TableColor, ready for TableModel.setLegend
+    public Map<TableColor, String> getColorLegend() {
+        return colorLegend;
+    }
+
+    // Bootstrap contextual classes of the table rows
+    public static String cssClass(TableColor color) {
+        return switch (color) {
+            case DEFAULT -> "";
+            case RED -> "table-danger";
+            case BLUE -> "table-primary";
+            case GREEN -> "table-success";
+            case YELLOW -> "table-warning";
+        };
+    }
+
+    record CompiledRule(Predicate<Object> predicate, String cssClass, TableColor color, String legend) {
+    }
+
+}
@@ -0,0 +1,96 @@
+package edu.miu.common.ui.importing;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Streaming RFC 4180 tokenizer: quoted cells may contain delimiters, line breaks and doubled quotes, and rows end
+    with CRLF, LF or CR. Only the current row is kept in memory, whatever the size of the file.
+ */
+final class CsvRowReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final char delimiter;
+
+    CsvRowReader(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    void read(Reader reader, RowSink sink) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        StringBuilder cell = new StringBuilder();
+        List<String> cells = new ArrayList<>();
+        boolean quoted = false;
+        // A quote inside a quoted cell is either the end of the quotes or the first half of an escaped quote
+        boolean quotePending = false;
+        boolean rowStarted = false;
+        boolean carriageReturn = false;
+        boolean first = true;
+
+        for (int length = reader.read(buffer); length != -1; length = reader.read(buffer)) {
+            for (int i = 0; i < length; i++) {
+                char c = buffer[i];
+                if (first) {
+                    first = false;
+                    if (c == BYTE_ORDER_MARK) {
+                        continue;
+                    }
+                }
+                // The LF of a CRLF, the row already ended with the CR
+                if (carriageReturn) {
+                    carriageReturn = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+
+                if (quoted) {
+                    if (quotePending) {
+                        quotePending = false;
+                        if (c == '"') {
+                            cell.append('"');
+                            continue;
+                        }
+                        quoted = false;
+                    } else if (c == '"') {
+                        quotePending = true;
+                        continue;
+                    } else {
+                        cell.append(c);
+                        continue;
+                    }
+                }
+
+                if (c == delimiter) {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                    rowStarted = true;
+                } else if (c == '\n' || c == '\r') {
+                    carriageReturn = c == '\r';
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                    sink.row(cells);
+                    cells = new ArrayList<>(cells.size());
+                    rowStarted = false;
+                } else if (c == '"' && cell.isEmpty()) {
+                    quoted = true;
+                    rowStarted = true;
+                } else {
+                    cell.append(c);
+                    rowStarted = true;
+                }
+            }
+        }
+
+        // The last row of files that do not end with a line break
+        if (rowStarted || !cell.isEmpty() || quoted) {
+            cells.add(cell.toString());
+            sink.row(cells);
+        }
+    }
+
+}
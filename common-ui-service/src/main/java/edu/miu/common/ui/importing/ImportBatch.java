@@ -0,0 +1,10 @@
+package edu.miu.common.ui.importing;
+
+import java.util.List;
+import java.util.Map;
+
+/* Rows of an import handed to the application, keyed by the header text of their column in the order of the file.
+    The first data row of the file is row 1, the header row not counting.
+ */
+public record ImportBatch(String importName, List<String> headers, long firstRowNumber, List<Map<String, String>> rows) {
+}
@@ -0,0 +1,11 @@
+package edu.miu.common.ui.importing;
+
+/* Receives the rows of an import in batches of ui.importing.batch-size rows while the file is read, e.g. to save them
+    with a batch insert. An exception stops the import, the batches handled before are not rolled back by the framework.
+ */
+@FunctionalInterface
+public interface ImportBatchHandler {
+
+    void handle(ImportBatch batch);
+
+}
@@ -0,0 +1,22 @@
+package edu.miu.common.ui.importing;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+
+    XLSX,
+    CSV;
+
+    // By the extension of the uploaded file, the content type sent by browsers is not reliable for spreadsheets
+    public static ImportFormat fromFilename(String filename) {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT).trim();
+        if (name.endsWith(".xlsx") || name.endsWith(".xlsm")) {
+            return XLSX;
+        }
+        if (name.endsWith(".csv") || name.endsWith(".txt")) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Unsupported import file: " + filename + ", expected an .xlsx or .csv file");
+    }
+
+}
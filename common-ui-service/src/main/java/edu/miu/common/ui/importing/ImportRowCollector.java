@@ -0,0 +1,135 @@
+package edu.miu.common.ui.importing;
+
+import edu.miu.common.ui.service.contract.ImportResult;
+import edu.miu.common.ui.service.contract.TableElement;
+import edu.miu.common.ui.service.contract.TableHeader;
+import edu.miu.common.ui.service.contract.TableModel;
+import edu.miu.common.ui.service.contract.TableRow;
+import org.apache.poi.ss.util.CellReference;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/* Turns the rows of a reader into batches for the application: the first row that is not blank holds the headers,
+    the following ones are mapped to them by position. Only the current batch and the preview are kept in memory.
+ */
+final class ImportRowCollector implements RowSink {
+
+    private final String importName;
+
+    private final ImportBatchHandler handler;
+
+    private final int batchSize;
+
+    private final int previewRows;
+
+    private final int maxColumns;
+
+    private final ImportResult result = new ImportResult();
+
+    private List<String> headers;
+
+    private List<Map<String, String>> batch = new ArrayList<>();
+
+    private long firstRowNumber = 1;
+
+    ImportRowCollector(String importName, String filename, ImportBatchHandler handler, int batchSize, int previewRows, int maxColumns) {
+        this.importName = importName;
+        this.handler = handler;
+        this.batchSize = Math.max(batchSize, 1);
+        this.previewRows = previewRows;
+        this.maxColumns = maxColumns;
+        result.setImportName(importName);
+        result.setFilename(filename);
+        TableModel preview = new TableModel();
+        preview.setExportFileName(filename);
+        preview.setEnableSearch(false);
+        result.setPreview(preview);
+    }
+
+    @Override
+    public void row(List<String> cells) {
+        if (cells.stream().allMatch(cell -> cell == null || cell.isBlank())) {
+            return;
+        }
+        if (headers == null) {
+            headers = headers(cells);
+            return;
+        }
+
+        // Cells past the last header have no column to go to and are dropped
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int column = 0; column < headers.size(); column++) {
+            row.put(headers.get(column), column < cells.size() ? cells.get(column) : "");
+        }
+        if (result.getPreview().getRows().size() < previewRows) {
+            result.getPreview().getRows().add(previewRow(row));
+        }
+        batch.add(row);
+        result.setRowCount(result.getRowCount() + 1);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    ImportResult finish() {
+        flush();
+        return result;
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        handler.handle(new ImportBatch(importName, headers, firstRowNumber, batch));
+        result.setBatchCount(result.getBatchCount() + 1);
+        firstRowNumber += batch.size();
+        batch = new ArrayList<>(batchSize);
+    }
+
+    // Header texts are the keys of the rows, blank ones are named after their column and repeated ones numbered
+    private List<String> headers(List<String> cells) {
+        int lastColumn = cells.size();
+        while (lastColumn > 0 && (cells.get(lastColumn - 1) == null || cells.get(lastColumn - 1).isBlank())) {
+            lastColumn--;
+        }
+        if (lastColumn > maxColumns) {
+            throw new IllegalArgumentException("The file has " + lastColumn + " columns, at most " + maxColumns + " can be imported");
+        }
+
+        List<String> names = new ArrayList<>(lastColumn);
+        Set<String> used = new HashSet<>();
+        for (int column = 0; column < lastColumn; column++) {
+            String cell = cells.get(column);
+            String name = cell == null || cell.isBlank() ? "Column " + CellReference.convertNumToColString(column) : cell.trim();
+            String unique = name;
+            for (int n = 2; !used.add(unique); n++) {
+                unique = name + " (" + n + ")";
+            }
+            names.add(unique);
+        }
+
+        result.setHeaders(names);
+        names.forEach(name -> {
+            TableHeader header = new TableHeader();
+            header.setText(name);
+            result.getPreview().getHeaders().add(header);
+        });
+        return names;
+    }
+
+    private TableRow previewRow(Map<String, String> row) {
+        TableRow tableRow = new TableRow();
+        row.forEach((header, value) -> {
+            TableElement element = new TableElement();
+            element.setText(value);
+            tableRow.getValues().put(header, element);
+        });
+        return tableRow;
+    }
+
+}
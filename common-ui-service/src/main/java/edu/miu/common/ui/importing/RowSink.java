@@ -0,0 +1,10 @@
+package edu.miu.common.ui.importing;
+
+import java.util.List;
+
+// Cells of every row of the file in column order, the readers call it while streaming
+interface RowSink {
+
+    void row(List<String> cells);
+
+}
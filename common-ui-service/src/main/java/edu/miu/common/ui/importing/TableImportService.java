@@ -0,0 +1,114 @@
+package edu.miu.common.ui.importing;
+
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import edu.miu.common.ui.service.contract.ImportResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Imports XLSX and CSV files of any size. Rows are streamed from the file and handed to the ImportBatchHandler
+    registered for the import in batches, memory use does not grow with the size of the file. The result holds the
+    row count and a TableModel preview of the first rows to show the user what was imported.
+
+    E.g. tableImportService.register("students", batch -> studentRepository.saveAll(batch.rows().stream()
+             .map(row -> new Student(row.get("Name"), row.get("Email"))).toList()));
+
+    Files are uploaded to POST /import/{importName} as the multipart "file" part, or read with importFile directly.
+ */
+@Slf4j
+@Component
+public class TableImportService {
+
+    private final CommonUIConfiguration.Import settings;
+
+    private final Map<String, ImportBatchHandler> handlers = new ConcurrentHashMap<>();
+
+    public TableImportService(CommonUIConfiguration commonUIConfiguration) {
+        this.settings = commonUIConfiguration.getImporting();
+    }
+
+    public void register(String importName, ImportBatchHandler handler) {
+        handlers.put(importName, handler);
+    }
+
+    public boolean isRegistered(String importName) {
+        return handlers.containsKey(importName);
+    }
+
+    public ImportResult importFile(String importName, MultipartFile file) throws IOException {
+        // Parts above the multipart file size threshold are on disk already and are moved instead of copied
+        Path upload = Files.createTempFile("common-ui-import-", ".upload");
+        try {
+            file.transferTo(upload);
+            return importFile(importName, file.getOriginalFilename(), upload);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    public ImportResult importFile(String importName, String filename, Path file) throws IOException {
+        ImportRowCollector collector = collector(importName, filename, handler(importName));
+        if (ImportFormat.fromFilename(filename) == ImportFormat.XLSX) {
+            new XlsxRowReader().read(file, collector);
+        } else {
+            try (Reader reader = csvReader(Files.newInputStream(file))) {
+                new CsvRowReader(settings.getCsvDelimiter()).read(reader, collector);
+            }
+        }
+        return finish(collector);
+    }
+
+    // CSV is read straight from the stream, a workbook has to be on disk to be read without loading it
+    public ImportResult importFile(String importName, String filename, InputStream input) throws IOException {
+        if (ImportFormat.fromFilename(filename) == ImportFormat.CSV) {
+            ImportRowCollector collector = collector(importName, filename, handler(importName));
+            new CsvRowReader(settings.getCsvDelimiter()).read(csvReader(input), collector);
+            return finish(collector);
+        }
+        Path upload = Files.createTempFile("common-ui-import-", ".xlsx");
+        try {
+            Files.copy(input, upload, StandardCopyOption.REPLACE_EXISTING);
+            return importFile(importName, filename, upload);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    private ImportBatchHandler handler(String importName) {
+        ImportBatchHandler handler = handlers.get(importName);
+        if (Objects.isNull(handler)) {
+            throw new IllegalArgumentException("No import handler registered for: " + importName);
+        }
+        return handler;
+    }
+
+    private ImportRowCollector collector(String importName, String filename, ImportBatchHandler handler) {
+        return new ImportRowCollector(importName, filename, handler, settings.getBatchSize(), settings.getPreviewRows(),
+                settings.getMaxColumns());
+    }
+
+    private ImportResult finish(ImportRowCollector collector) {
+        ImportResult result = collector.finish();
+        log.debug("Import {} of {} read: {} rows in {} batches", result.getImportName(), result.getFilename(),
+                result.getRowCount(), result.getBatchCount());
+        return result;
+    }
+
+    private Reader csvReader(InputStream input) {
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+}
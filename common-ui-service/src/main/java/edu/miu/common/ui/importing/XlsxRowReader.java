@@ -0,0 +1,85 @@
+package edu.miu.common.ui.importing;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Reads the first worksheet of a workbook with the SAX event model of POI, one row at a time, instead of building
+    the XSSFWorkbook. Values are formatted as Excel displays them. Shared strings are the only part of the file kept
+    in memory, exports of this framework write inline strings and have none.
+ */
+final class XlsxRowReader {
+
+    // Opened from a file, an OPCPackage opened from a stream buffers the whole archive in memory
+    void read(Path file, RowSink sink) throws IOException {
+        try (OPCPackage workbook = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(workbook);
+            reader.setUseReadOnlySharedStringsTable(true);
+            SharedStrings sharedStrings = reader.getSharedStringsTable();
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, sharedStrings, new SheetRows(sink), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IllegalArgumentException("The file is not a readable XLSX workbook: " + e.getMessage(), e);
+        }
+    }
+
+    // Empty cells and rows are missing from the sheet, cells are filled in from their references
+    private static final class SheetRows implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowSink sink;
+
+        private List<String> cells = new ArrayList<>();
+
+        private SheetRows(RowSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>(cells.size());
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            sink.row(cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? cells.size() : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue == null ? "" : formattedValue);
+        }
+
+    }
+
+}
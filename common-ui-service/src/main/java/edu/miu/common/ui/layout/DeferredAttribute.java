@@ -0,0 +1,59 @@
+package edu.miu.common.ui.layout;
+
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/* Layout attribute whose value is loaded by the application while the other attributes are configured.
+    Either a supplier, started on a virtual thread when the layout is built, or a future already started by the caller.
+    The fallback is used when the value fails or is not ready before the deadline.
+ */
+public final class DeferredAttribute {
+
+    private final Supplier<?> supplier;
+
+    private final Future<?> future;
+
+    private final Object fallback;
+
+    private final Function<Object, Object> transformation;
+
+    private DeferredAttribute(Supplier<?> supplier, Future<?> future, Object fallback, Function<Object, Object> transformation) {
+        this.supplier = supplier;
+        this.future = future;
+        this.fallback = fallback;
+        this.transformation = transformation;
+    }
+
+    public static DeferredAttribute of(Supplier<?> supplier, Object fallback) {
+        return new DeferredAttribute(Objects.requireNonNull(supplier), null, fallback, Function.identity());
+    }
+
+    public static DeferredAttribute of(Future<?> future, Object fallback) {
+        return new DeferredAttribute(null, Objects.requireNonNull(future), fallback, Function.identity());
+    }
+
+    // Applied to the loaded value only, e.g. turning breadcrumb names into links. The fallback is used as it is
+    @SuppressWarnings("unchecked")
+    public <V> DeferredAttribute map(Function<V, ?> mapper) {
+        return new DeferredAttribute(supplier, future, fallback, transformation.andThen(value -> mapper.apply((V) value)));
+    }
+
+    Supplier<?> getSupplier() {
+        return supplier;
+    }
+
+    Future<?> getFuture() {
+        return future;
+    }
+
+    Object getFallback() {
+        return fallback;
+    }
+
+    Object transform(Object value) {
+        return transformation.apply(value);
+    }
+
+}
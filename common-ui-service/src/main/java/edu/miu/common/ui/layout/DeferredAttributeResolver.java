@@ -0,0 +1,116 @@
+package edu.miu.common.ui.layout;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/* Resolves the deferred attributes of a layout concurrently, one virtual thread per supplier, so the page waits for its
+    slowest dependency instead of the sum of all of them. Values that fail or miss the deadline use their fallback.
+    The request attributes and the logging MDC are propagated to the suppliers, any other thread bound context
+    (e.g. the security context) has to be captured by the supplier itself.
+ */
+@Slf4j
+@Component
+public class DeferredAttributeResolver {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public void resolve(Map<String, Object> attributes, Duration deadline) {
+
+        Map<String, DeferredAttribute> deferredAttributes = new LinkedHashMap<>();
+        attributes.forEach((name, value) -> {
+            if (value instanceof DeferredAttribute deferredAttribute) {
+                deferredAttributes.put(name, deferredAttribute);
+            }
+        });
+        if (deferredAttributes.isEmpty()) {
+            return;
+        }
+
+        // Every supplier is started before waiting on any of them
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        deferredAttributes.forEach((name, deferredAttribute) -> futures.put(name,
+                Objects.nonNull(deferredAttribute.getFuture()) ? deferredAttribute.getFuture() : start(deferredAttribute.getSupplier())));
+
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        futures.forEach((name, future) -> {
+            DeferredAttribute deferredAttribute = deferredAttributes.get(name);
+            attributes.put(name, await(name, future, deferredAttribute, deadline, deadlineNanos));
+        });
+    }
+
+    private Future<?> start(Supplier<?> supplier) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return executor.submit(() -> {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            if (Objects.nonNull(mdc)) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                return supplier.get();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+                MDC.clear();
+            }
+        });
+    }
+
+    /* Waiting and transforming fail for different reasons: a supplier that misses the deadline, or a future supplied
+        by the application that is cancelled or times out on its own, is a slow dependency, not a transformation bug.
+     */
+    private Object await(String name, Future<?> future, DeferredAttribute deferredAttribute, Duration deadline, long deadlineNanos) {
+        Object value;
+        try {
+            value = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Deferred attribute {} not ready before the deadline of {} ms, fallback value used", name, deadline.toMillis());
+            return deferredAttribute.getFallback();
+        } catch (CancellationException e) {
+            log.warn("Deferred attribute {} was cancelled before the deadline of {} ms, fallback value used", name, deadline.toMillis());
+            return deferredAttribute.getFallback();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                log.warn("Deferred attribute {} timed out on its own within the deadline of {} ms, fallback value used", name, deadline.toMillis());
+            } else {
+                log.warn("Deferred attribute {} failed, fallback value used. Error Message: {}", name, e.getCause().getMessage());
+            }
+            return deferredAttribute.getFallback();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            log.warn("Interrupted while waiting for the deferred attribute {}, fallback value used", name);
+            return deferredAttribute.getFallback();
+        }
+
+        try {
+            return deferredAttribute.transform(value);
+        } catch (RuntimeException e) {
+            log.warn("Deferred attribute {} could not be transformed, fallback value used. Error Message: {}", name, e.getMessage());
+            return deferredAttribute.getFallback();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
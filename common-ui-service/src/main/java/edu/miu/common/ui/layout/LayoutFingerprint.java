@@ -0,0 +1,81 @@
+package edu.miu.common.ui.layout;
+
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/* Computes strong ETags for layout pages from the data version supplied by the application, the layout attributes
+    and the configuration version. Values are fingerprinted by content so every node of a cluster computes the same tag.
+ */
+public final class LayoutFingerprint {
+
+    // Row data is represented by the data version, and the remaining entries are services or derived values
+    private static final Set<String> EXCLUDED_ATTRIBUTES = Set.of("tableList", "commonUtils", "dataVersion", "layoutPlan");
+
+    // 128 bits are more than enough to tell page versions apart and keep the header short
+    private static final int ETAG_BYTES = 16;
+
+    private LayoutFingerprint() {
+    }
+
+    public static String strongETag(Object dataVersion, Map<String, Object> attributes, Object... scope) {
+        MessageDigest digest = newDigest();
+        update(digest, dataVersion);
+        for (Object value : scope) {
+            update(digest, value);
+        }
+        // Attribute order depends on the map implementation, so the names are sorted first
+        new TreeMap<>(attributes).forEach((name, value) -> {
+            // Deferred values are still loading, they are data and covered by the data version as well
+            if (!EXCLUDED_ATTRIBUTES.contains(name) && !(value instanceof DeferredAttribute)) {
+                update(digest, name);
+                update(digest, value);
+            }
+        });
+        byte[] hash = digest.digest();
+        return "\"" + HexFormat.of().formatHex(hash, 0, ETAG_BYTES) + "\"";
+    }
+
+    private static void update(MessageDigest digest, Object value) {
+        if (value == null) {
+            digest.update((byte) 0);
+        } else if (value instanceof Map<?, ?> map) {
+            digest.update((byte) '{');
+            map.forEach((key, entry) -> {
+                update(digest, key);
+                update(digest, entry);
+            });
+            digest.update((byte) '}');
+        } else if (value instanceof Collection<?> collection) {
+            digest.update((byte) '[');
+            collection.forEach(element -> update(digest, element));
+            digest.update((byte) ']');
+        } else if (value.getClass().isArray()) {
+            digest.update((byte) '[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                update(digest, Array.get(value, i));
+            }
+            digest.update((byte) ']');
+        } else {
+            String text = value instanceof Enum<?> constant ? constant.name() : value.toString();
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            // Separator so that ("ab", "c") and ("a", "bc") produce different hashes
+            digest.update((byte) 0x1F);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available in this JVM", e);
+        }
+    }
+
+}
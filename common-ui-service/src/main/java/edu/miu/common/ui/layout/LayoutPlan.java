@@ -0,0 +1,35 @@
+package edu.miu.common.ui.layout;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/* Resolved fragment expression for every layout slot that has something to render.
+    Slots that are missing from the plan are removed from the output without evaluating any expression.
+ */
+public final class LayoutPlan {
+
+    private final Map<LayoutSlot, String> fragments;
+
+    LayoutPlan(EnumMap<LayoutSlot, String> fragments) {
+        this.fragments = Collections.unmodifiableMap(fragments);
+    }
+
+    public String getFragment(LayoutSlot slot) {
+        return fragments.get(slot);
+    }
+
+    public boolean isEmpty(LayoutSlot slot) {
+        return !fragments.containsKey(slot);
+    }
+
+    public Map<LayoutSlot, String> getFragments() {
+        return fragments;
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutPlan" + fragments;
+    }
+
+}
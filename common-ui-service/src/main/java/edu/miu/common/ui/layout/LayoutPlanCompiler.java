@@ -0,0 +1,84 @@
+package edu.miu.common.ui.layout;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.util.EvaluationUtils;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/* Turns the fragment related attributes of a layout builder into a LayoutPlan.
+    Views are usually configured the same way on every request, so plans are cached by the attribute values
+    that were used to resolve them and the templates never have to preprocess the fragment expressions again.
+ */
+@Slf4j
+@Component
+public class LayoutPlanCompiler {
+
+    // Guards against applications that build fragment names dynamically, those are compiled without being cached
+    static final int MAX_CACHED_PLANS = 512;
+
+    private static final LayoutSlot[] SLOTS = LayoutSlot.values();
+
+    private final Map<List<Object>, LayoutPlan> plans = new ConcurrentHashMap<>();
+
+    public LayoutPlan compile(Map<String, ?> attributes) {
+        return compile(attributes::get);
+    }
+
+    public LayoutPlan compile(Function<String, ?> attributes) {
+        List<Object> key = planKey(attributes);
+        LayoutPlan plan = plans.get(key);
+        if (plan != null) {
+            return plan;
+        }
+        plan = resolve(key);
+        if (plans.size() < MAX_CACHED_PLANS) {
+            plans.putIfAbsent(key, plan);
+        } else {
+            log.debug("Layout plan cache is full, plan compiled without caching: {}", plan);
+        }
+        return plan;
+    }
+
+    // The key holds, per slot, whether the default fragment is shown and the custom fragment name when it is not
+    private List<Object> planKey(Function<String, ?> attributes) {
+        Object[] key = new Object[SLOTS.length];
+        for (LayoutSlot slot : SLOTS) {
+            if (slot.hasDefaultFragment() && EvaluationUtils.evaluateAsBoolean(attributes.apply(slot.getShowAttribute()))) {
+                key[slot.ordinal()] = Boolean.TRUE;
+            } else {
+                key[slot.ordinal()] = customFragmentName(attributes.apply(slot.getCustomAttribute()));
+            }
+        }
+        return Arrays.asList(key);
+    }
+
+    private LayoutPlan resolve(List<Object> key) {
+        EnumMap<LayoutSlot, String> fragments = new EnumMap<>(LayoutSlot.class);
+        for (LayoutSlot slot : SLOTS) {
+            Object value = key.get(slot.ordinal());
+            if (Boolean.TRUE.equals(value)) {
+                fragments.put(slot, "~{" + slot.getDefaultFragment() + "}");
+            } else if (value instanceof String fragmentName) {
+                fragments.put(slot, "~{" + fragmentName + "}");
+            }
+        }
+        log.debug("Layout plan compiled: {}", fragments);
+        return new LayoutPlan(fragments);
+    }
+
+    private String customFragmentName(Object value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        String fragmentName = value.toString().trim();
+        return fragmentName.isEmpty() ? null : fragmentName;
+    }
+
+}
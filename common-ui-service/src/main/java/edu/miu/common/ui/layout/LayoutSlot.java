@@ -0,0 +1,98 @@
+package edu.miu.common.ui.layout;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/* Every place in the framework layouts and fragments where a configurable fragment can be inserted.
+    The slot name is the value used in the templates (cui:slot="..."). Slots with a show attribute fall back
+    to the custom attribute when the default fragment is disabled, the rest only render the custom attribute.
+ */
+public enum LayoutSlot {
+
+    HEAD("head", "showDefaultHead", "framework/fragments/head :: common-head", "customHead"),
+    HEADER("header", "showDefaultHeader", "framework/fragments/header :: common-header", "customHeader"),
+    MAIN_TITLE("mainTitle", "showDefaultMainTitle", "framework/fragments/main-title :: common-main-title", "customMainTitle"),
+    NAVIGATION_MENU("navigationMenu", "showDefaultNavigationMenu", "framework/fragments/navigation-menu :: common-navigation-menu", "customNavigationMenu"),
+    SEARCH_BOX("searchBox", "showDefaultSearchBox", "framework/fragments/search-box :: common-search-box", "customSearchBox"),
+    TABLE("table", "showDefaultTable", "framework/fragments/table :: common-table", "customTable"),
+    FOOTER("footer", "showDefaultFooter", "framework/fragments/footer :: common-footer", "customFooter"),
+
+    EXTRA_STANDARD_FRAGMENT_ONE("extraStandardFragmentOne"),
+    EXTRA_STANDARD_FRAGMENT_TWO("extraStandardFragmentTwo"),
+    EXTRA_STANDARD_FRAGMENT_THREE("extraStandardFragmentThree"),
+    EXTRA_STANDARD_FRAGMENT_FOUR("extraStandardFragmentFour"),
+    EXTRA_STANDARD_FRAGMENT_FIVE("extraStandardFragmentFive"),
+
+    EXTRA_TABLE_FRAGMENT_ONE("extraTableFragmentOne"),
+    EXTRA_TABLE_FRAGMENT_TWO("extraTableFragmentTwo"),
+    EXTRA_TABLE_FRAGMENT_THREE("extraTableFragmentThree"),
+    EXTRA_TABLE_FRAGMENT_FOUR("extraTableFragmentFour"),
+    EXTRA_TABLE_FRAGMENT_FIVE("extraTableFragmentFive"),
+    EXTRA_TABLE_FRAGMENT_SIX("extraTableFragmentSix"),
+    EXTRA_TABLE_FRAGMENT_SEVEN("extraTableFragmentSeven"),
+
+    HEAD_EXTENSION_FRAGMENT("headExtensionFragment"),
+    CSS_EXTENSION_FRAGMENT("cssExtensionFragment"),
+    JS_EXTENSION_FRAGMENT("jsExtensionFragment"),
+    FOOTER_EXTENSION_FRAGMENT("footerExtensionFragment"),
+    HEADER_EXTENSION_FRAGMENT_ONE("headerExtensionFragmentOne"),
+    HEADER_EXTENSION_FRAGMENT_TWO("headerExtensionFragmentTwo"),
+    HEADER_EXTENSION_FRAGMENT_THREE("headerExtensionFragmentThree"),
+    MAIN_TITLE_EXTENSION_FRAGMENT_ONE("mainTitleExtensionFragmentOne"),
+    MAIN_TITLE_EXTENSION_FRAGMENT_TWO("mainTitleExtensionFragmentTwo"),
+    EXTRA_NAVIGATION_BUTTON_BEFORE("extraNavigationButtonBefore"),
+    EXTRA_NAVIGATION_BUTTON_AFTER("extraNavigationButtonAfter");
+
+    private static final Map<String, LayoutSlot> SLOTS_BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toMap(LayoutSlot::getSlotName, Function.identity()));
+
+    private final String slotName;
+
+    private final String showAttribute;
+
+    private final String defaultFragment;
+
+    private final String customAttribute;
+
+    LayoutSlot(String slotName, String showAttribute, String defaultFragment, String customAttribute) {
+        this.slotName = slotName;
+        this.showAttribute = showAttribute;
+        this.defaultFragment = defaultFragment;
+        this.customAttribute = customAttribute;
+    }
+
+    LayoutSlot(String attributeName) {
+        this(attributeName, null, null, attributeName);
+    }
+
+    public String getSlotName() {
+        return slotName;
+    }
+
+    public String getShowAttribute() {
+        return showAttribute;
+    }
+
+    public String getDefaultFragment() {
+        return defaultFragment;
+    }
+
+    public String getCustomAttribute() {
+        return customAttribute;
+    }
+
+    public boolean hasDefaultFragment() {
+        return showAttribute != null;
+    }
+
+    public static LayoutSlot fromSlotName(String slotName) {
+        LayoutSlot slot = SLOTS_BY_NAME.get(slotName);
+        if (slot == null) {
+            throw new IllegalArgumentException("Unknown layout slot: " + slotName);
+        }
+        return slot;
+    }
+
+}
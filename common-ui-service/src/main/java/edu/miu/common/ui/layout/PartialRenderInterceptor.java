@@ -0,0 +1,41 @@
+package edu.miu.common.ui.layout;
+
+import edu.miu.common.ui.utils.CommonUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Objects;
+
+/* Renders only the table and the pagination of a table layout when the request carries the X-Common-UI-Partial
+    header, sent by common.js when the user pages, changes the page size or filters through the entries form. The
+    controller and the builder run as usual, only the view is swapped for CommonUtils.TABLE_PARTIAL.
+
+    The header is echoed in partial responses, a response without it is a full page and the script navigates to it.
+ */
+@Slf4j
+public class PartialRenderInterceptor implements HandlerInterceptor {
+
+    public static final String PARTIAL_HEADER = "X-Common-UI-Partial";
+
+    public static final String PARTIAL_RENDERING_ATTRIBUTE = "partialRendering";
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        if (Objects.isNull(modelAndView) || !CommonUtils.TABLE_LAYOUT.equals(modelAndView.getViewName())
+                || !Boolean.TRUE.equals(modelAndView.getModel().get(PARTIAL_RENDERING_ATTRIBUTE))) {
+            return;
+        }
+        // Caches must keep the full page and the partial one of the same URL apart
+        response.addHeader(HttpHeaders.VARY, PARTIAL_HEADER);
+        if (Objects.nonNull(request.getHeader(PARTIAL_HEADER))) {
+            log.debug("Partial rendering of {}", request.getRequestURI());
+            modelAndView.setViewName(CommonUtils.TABLE_PARTIAL);
+            response.setHeader(PARTIAL_HEADER, "table");
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package edu.miu.common.ui.live;
+
+import edu.miu.common.ui.service.contract.TableChangeType;
+import edu.miu.common.ui.service.contract.TableRowChange;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/* One browser subscribed to a live table. Changes wait in a per-row map until the next flush, so a slow connection
+    keeps coalescing updates of the same rows instead of queueing them. Only one batch is in flight per connection.
+ */
+class LiveTableConnection {
+
+    private final SseEmitter emitter;
+
+    private final int maxPendingRows;
+
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    private Map<String, TableRowChange> pending = new LinkedHashMap<>();
+
+    private boolean resync;
+
+    private volatile boolean closed;
+
+    LiveTableConnection(SseEmitter emitter, int maxPendingRows) {
+        this.emitter = emitter;
+        this.maxPendingRows = maxPendingRows;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    synchronized void enqueue(TableRowChange change) {
+        if (resync) {
+            return;
+        }
+        TableRowChange merged = merge(pending.get(change.getRowId()), change);
+        if (merged == null) {
+            pending.remove(change.getRowId());
+        } else {
+            pending.put(change.getRowId(), merged);
+        }
+        // Too far behind, the client reloads the page instead of receiving every row
+        if (pending.size() > maxPendingRows) {
+            pending = new LinkedHashMap<>();
+            resync = true;
+        }
+    }
+
+    boolean tryStartSending() {
+        return sending.compareAndSet(false, true);
+    }
+
+    void finishSending() {
+        sending.set(false);
+    }
+
+    synchronized boolean isResyncRequired() {
+        return resync;
+    }
+
+    synchronized boolean hasPending() {
+        return resync || !pending.isEmpty();
+    }
+
+    synchronized List<TableRowChange> drain() {
+        List<TableRowChange> batch = new ArrayList<>(pending.values());
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    // Returns null when the row never has to reach the client, e.g. inserted and deleted within the same window
+    static TableRowChange merge(TableRowChange existing, TableRowChange incoming) {
+        if (existing == null) {
+            return incoming;
+        }
+        return switch (incoming.getType()) {
+            case DELETE -> existing.getType() == TableChangeType.INSERT ? null : incoming;
+            case UPDATE -> existing.getType() == TableChangeType.DELETE ? incoming : withValues(existing.getType(), existing, incoming);
+            // Deleted and inserted again: the client still has the row, so it becomes an update with the new values
+            case INSERT -> existing.getType() == TableChangeType.DELETE
+                    ? new TableRowChange(TableChangeType.UPDATE, incoming.getRowId(), incoming.getValues())
+                    : incoming;
+        };
+    }
+
+    private static TableRowChange withValues(TableChangeType type, TableRowChange existing, TableRowChange incoming) {
+        Map<String, String> values = new HashMap<>(existing.getValues());
+        values.putAll(incoming.getValues());
+        return new TableRowChange(type, incoming.getRowId(), values);
+    }
+
+}
@@ -0,0 +1,162 @@
+package edu.miu.common.ui.live;
+
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import edu.miu.common.ui.service.contract.TableChangeType;
+import edu.miu.common.ui.service.contract.TableRowChange;
+import edu.miu.common.ui.utils.CommonUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/* Pushes row level changes of live tables to the subscribed browsers through Server-Sent Events.
+    Changes are coalesced per row and flushed every ui.live-table.coalesce-window-millis, each connection is written by
+    its own virtual thread so a slow browser never delays the others.
+
+    E.g. tableUpdatePublisher.publishRow("students", TableChangeType.UPDATE, student, "id", STUDENT_ATTRIBUTES);
+ */
+@Slf4j
+@Component
+public class TableUpdatePublisher {
+
+    public static final String ROWS_EVENT = "rows";
+
+    public static final String RESYNC_EVENT = "resync";
+
+    private final CommonUIConfiguration.LiveTable settings;
+
+    private final CommonUtils commonUtils;
+
+    private final Map<String, Set<LiveTableConnection>> connections = new ConcurrentHashMap<>();
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private ScheduledExecutorService flusher;
+
+    public TableUpdatePublisher(CommonUIConfiguration commonUIConfiguration, CommonUtils commonUtils) {
+        this.settings = commonUIConfiguration.getLiveTable();
+        this.commonUtils = commonUtils;
+    }
+
+    public SseEmitter subscribe(String tableName) {
+        startFlusher();
+
+        SseEmitter emitter = new SseEmitter(settings.getEmitterTimeoutMillis());
+        LiveTableConnection connection = new LiveTableConnection(emitter, settings.getMaxPendingRows());
+        Set<LiveTableConnection> tableConnections = connections.computeIfAbsent(tableName, name -> ConcurrentHashMap.newKeySet());
+        tableConnections.add(connection);
+
+        Runnable unsubscribe = () -> {
+            connection.close();
+            tableConnections.remove(connection);
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        log.debug("Live table subscription added for table: {}, connections: {}", tableName, tableConnections.size());
+        return emitter;
+    }
+
+    public void publish(String tableName, TableRowChange change) {
+        Set<LiveTableConnection> tableConnections = connections.get(tableName);
+        if (Objects.isNull(tableConnections)) {
+            return;
+        }
+        tableConnections.forEach(connection -> connection.enqueue(change));
+    }
+
+    // Values are extracted the same way the table renders them, so the browser can patch the cells as they are
+    public void publishRow(String tableName, TableChangeType type, Object row, String rowIdAttribute, List<String> attributeNames) {
+        if (!connections.containsKey(tableName)) {
+            return;
+        }
+        String rowId = commonUtils.getTextByHeader(row, rowIdAttribute);
+        Map<String, String> values = new LinkedHashMap<>();
+        if (type != TableChangeType.DELETE) {
+            attributeNames.forEach(attributeName -> values.put(attributeName, commonUtils.getTextByHeader(row, attributeName)));
+        }
+        publish(tableName, new TableRowChange(type, rowId, values));
+    }
+
+    public void publishDelete(String tableName, String rowId) {
+        publish(tableName, new TableRowChange(TableChangeType.DELETE, rowId, Map.of()));
+    }
+
+    public int getConnectionCount(String tableName) {
+        Set<LiveTableConnection> tableConnections = connections.get(tableName);
+        return Objects.isNull(tableConnections) ? 0 : tableConnections.size();
+    }
+
+    private synchronized void startFlusher() {
+        if (flusher != null) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-table-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleAtFixedRate(this::flush, settings.getCoalesceWindowMillis(), settings.getCoalesceWindowMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        connections.values().forEach(tableConnections -> {
+            tableConnections.removeIf(LiveTableConnection::isClosed);
+            tableConnections.forEach(connection -> {
+                // A connection still writing the previous batch keeps coalescing until the next window
+                if (connection.hasPending() && connection.tryStartSending()) {
+                    senders.execute(() -> send(connection));
+                }
+            });
+        });
+    }
+
+    private void send(LiveTableConnection connection) {
+        SseEmitter emitter = connection.getEmitter();
+        try {
+            if (connection.isClosed()) {
+                return;
+            }
+            if (connection.isResyncRequired()) {
+                emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+                emitter.complete();
+                connection.close();
+                return;
+            }
+            List<TableRowChange> batch = connection.drain();
+            if (!batch.isEmpty()) {
+                emitter.send(SseEmitter.event().name(ROWS_EVENT).data(batch, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Live table connection closed while sending: {}", e.getMessage());
+            connection.close();
+            emitter.completeWithError(e);
+        } finally {
+            connection.finishSending();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        senders.shutdownNow();
+        connections.values().forEach(tableConnections -> tableConnections.forEach(connection -> connection.getEmitter().complete()));
+    }
+
+}
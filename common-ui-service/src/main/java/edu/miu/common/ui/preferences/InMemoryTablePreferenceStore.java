@@ -0,0 +1,37 @@
+package edu.miu.common.ui.preferences;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/* Preferences of the most recent users of this node, lost on restart. It is the default TablePreferenceStore, keeping
+    preferences across restarts and nodes is left to the application, which declares its own TablePreferenceStore bean.
+ */
+public class InMemoryTablePreferenceStore implements TablePreferenceStore {
+
+    // Only authenticated users are stored, the least recently used are dropped first
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<String, List<String>> visibleColumns = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    @Override
+    public synchronized Optional<List<String>> findVisibleColumns(String user, String tableName) {
+        return Optional.ofNullable(visibleColumns.get(key(user, tableName)));
+    }
+
+    @Override
+    public synchronized void saveVisibleColumns(String user, String tableName, List<String> columns) {
+        visibleColumns.put(key(user, tableName), List.copyOf(columns));
+    }
+
+    private String key(String user, String tableName) {
+        return user + '\u0000' + tableName;
+    }
+
+}
@@ -0,0 +1,72 @@
+package edu.miu.common.ui.preferences;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/* Resolves the columns a user sees in a table from the preferences saved through the "Columns" dropdown, so the
+    table, the export and the query behind them only handle the visible columns.
+
+    Preferences of authenticated users are kept in the TablePreferenceStore under their remote user. Anonymous users
+    have no identity to keep them under, a session id or an address is shared or reused by other people, so their
+    preferences live in their session and they see every column without one.
+ */
+@Slf4j
+@Component
+public class TablePreferenceService {
+
+    static final String SESSION_ATTRIBUTE_PREFIX = "commonUI.visibleColumns.";
+
+    private final TablePreferenceStore tablePreferenceStore;
+
+    public TablePreferenceService(TablePreferenceStore tablePreferenceStore) {
+        this.tablePreferenceStore = tablePreferenceStore;
+    }
+
+    /* Visible columns of the current request in the order of the attribute names. Every column is visible outside of a
+        request, when the user never chose or when none of the saved columns exists anymore.
+     */
+    public List<String> visibleColumns(String tableName, List<String> attributeNames) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes requestAttributes)) {
+            return attributeNames;
+        }
+        List<String> saved = findVisibleColumns(requestAttributes.getRequest(), tableName).orElse(null);
+        if (Objects.isNull(saved)) {
+            return attributeNames;
+        }
+        List<String> visible = attributeNames.stream().filter(saved::contains).toList();
+        return visible.isEmpty() ? attributeNames : visible;
+    }
+
+    public void saveVisibleColumns(HttpServletRequest request, String tableName, List<String> visibleColumns) {
+        if (Objects.isNull(visibleColumns) || visibleColumns.isEmpty()) {
+            throw new IllegalArgumentException("At least one column of table " + tableName + " must be visible");
+        }
+        String user = request.getRemoteUser();
+        if (Objects.nonNull(user)) {
+            tablePreferenceStore.saveVisibleColumns(user, tableName, visibleColumns);
+        } else {
+            request.getSession().setAttribute(SESSION_ATTRIBUTE_PREFIX + tableName, List.copyOf(visibleColumns));
+        }
+        log.debug("Visible columns of table {} saved: {}", tableName, visibleColumns);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<List<String>> findVisibleColumns(HttpServletRequest request, String tableName) {
+        String user = request.getRemoteUser();
+        if (Objects.nonNull(user)) {
+            return tablePreferenceStore.findVisibleColumns(user, tableName);
+        }
+        HttpSession session = request.getSession(false);
+        return Objects.isNull(session) ? Optional.empty()
+                : Optional.ofNullable((List<String>) session.getAttribute(SESSION_ATTRIBUTE_PREFIX + tableName));
+    }
+
+}
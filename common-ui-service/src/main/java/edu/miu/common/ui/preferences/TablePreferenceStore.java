@@ -0,0 +1,17 @@
+package edu.miu.common.ui.preferences;
+
+import java.util.List;
+import java.util.Optional;
+
+/* Persists the table preferences of the authenticated users, keyed by their remote user. The library only ships the
+    InMemoryTablePreferenceStore, which is registered when the application declares no bean of this type: persistent
+    preferences, e.g. in a user settings table, are left to the application.
+ */
+public interface TablePreferenceStore {
+
+    // Attribute names of the columns the user chose to see, empty when the user never changed them
+    Optional<List<String>> findVisibleColumns(String user, String tableName);
+
+    void saveVisibleColumns(String user, String tableName, List<String> visibleColumns);
+
+}
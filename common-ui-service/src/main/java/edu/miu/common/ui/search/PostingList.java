@@ -0,0 +1,83 @@
+package edu.miu.common.ui.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/* Documents containing one token. Most tokens of a table are rare (ids, e-mails, numbers), those keep a sorted array
+    of document numbers, and only the frequent ones switch to a bit set once it is the smaller of the two.
+ */
+final class PostingList {
+
+    // Below this size the array is kept regardless of the density, a few ints are cheaper than any bit set
+    private static final int MIN_BITSET_SIZE = 256;
+
+    private final String token;
+
+    private int[] documents = new int[2];
+
+    private int size;
+
+    private BitSet bits;
+
+    PostingList(String token) {
+        this.token = token;
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    void add(int document) {
+        if (bits != null) {
+            bits.set(document);
+            return;
+        }
+        // Documents are mostly added in increasing order, so this is usually an append
+        int position = size == 0 || documents[size - 1] < document ? -(size + 1) : Arrays.binarySearch(documents, 0, size, document);
+        if (position >= 0) {
+            return;
+        }
+        int insertion = -(position + 1);
+        if (size == documents.length) {
+            documents = Arrays.copyOf(documents, size * 2);
+        }
+        System.arraycopy(documents, insertion, documents, insertion + 1, size - insertion);
+        documents[insertion] = document;
+        size++;
+        // A bit set takes one bit per document number up to the largest one, the array takes 32 per entry
+        if (size >= MIN_BITSET_SIZE && documents[size - 1] < size * 32) {
+            bits = new BitSet(documents[size - 1] + 1);
+            for (int i = 0; i < size; i++) {
+                bits.set(documents[i]);
+            }
+            documents = null;
+        }
+    }
+
+    void remove(int document) {
+        if (bits != null) {
+            bits.clear(document);
+            return;
+        }
+        int position = Arrays.binarySearch(documents, 0, size, document);
+        if (position >= 0) {
+            System.arraycopy(documents, position + 1, documents, position, size - position - 1);
+            size--;
+        }
+    }
+
+    boolean isEmpty() {
+        return bits != null ? bits.isEmpty() : size == 0;
+    }
+
+    void addTo(BitSet target) {
+        if (bits != null) {
+            target.or(bits);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            target.set(documents[i]);
+        }
+    }
+
+}
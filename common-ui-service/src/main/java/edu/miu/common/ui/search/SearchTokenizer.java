@@ -0,0 +1,53 @@
+package edu.miu.common.ui.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/* Splits display values into lower case tokens of letters and digits, accents removed, so "Émile O'Brien" is found
+    with "emile o brien". The same rules apply to the indexed values and to the queries.
+ */
+final class SearchTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private SearchTokenizer() {
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = normalize(text);
+        int start = -1;
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(normalized.substring(start));
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        // Plain ASCII is the common case and does not need the decomposition
+        for (int i = 0; i < lowerCase.length(); i++) {
+            if (lowerCase.charAt(i) > 0x7F) {
+                return DIACRITICS.matcher(Normalizer.normalize(lowerCase, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return lowerCase;
+    }
+
+}
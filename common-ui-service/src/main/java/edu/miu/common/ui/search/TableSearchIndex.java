@@ -0,0 +1,172 @@
+package edu.miu.common.ui.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/* In memory inverted index of the display values of one table.
+    Each row gets a dense document number, every token points to the posting list of the documents containing it and
+    the tokens are kept sorted, so a prefix is a range of the token map. A query matches the rows containing every
+    term, each term being a prefix, which keeps search-as-you-type a handful of bit set operations even for 100k+ rows.
+ */
+public class TableSearchIndex {
+
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+
+    private final Map<String, Integer> documentsByRowId = new HashMap<>();
+
+    private final List<String> rowIds = new ArrayList<>();
+
+    // Posting lists of every document, needed to remove it from them when the row is updated or removed
+    private final List<PostingList[]> documentPostings = new ArrayList<>();
+
+
+    private final Deque<Integer> freeDocuments = new ArrayDeque<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(String rowId, List<String> values) {
+        Set<String> tokens = SearchTokenizer.tokenize(String.join(" ", values));
+        lock.writeLock().lock();
+        try {
+            Integer document = documentsByRowId.get(rowId);
+            if (document != null) {
+                unlink(document);
+            } else {
+                document = newDocument(rowId);
+            }
+            PostingList[] documentLists = new PostingList[tokens.size()];
+            int i = 0;
+            for (String token : tokens) {
+                PostingList postingList = postings.computeIfAbsent(token, PostingList::new);
+                postingList.add(document);
+                documentLists[i++] = postingList;
+            }
+            documentPostings.set(document, documentLists);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String rowId) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documentsByRowId.remove(rowId);
+            if (document == null) {
+                return false;
+            }
+            unlink(document);
+            rowIds.set(document, null);
+            freeDocuments.push(document);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentsByRowId.clear();
+            rowIds.clear();
+            documentPostings.clear();
+            freeDocuments.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentsByRowId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* Returns the row ids matching every term of the query, at most limit of them, and the total number of matches.
+        An empty query matches nothing, the table shows its own rows in that case.
+     */
+    public SearchHits search(String query, int limit) {
+        Set<String> terms = SearchTokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return new SearchHits(0, List.of());
+        }
+        lock.readLock().lock();
+        try {
+            BitSet matches = null;
+            for (String term : terms) {
+                BitSet termMatches = prefixMatches(term);
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.and(termMatches);
+                }
+                if (matches.isEmpty()) {
+                    return new SearchHits(0, List.of());
+                }
+            }
+            List<String> hits = new ArrayList<>(Math.min(limit, matches.cardinality()));
+            for (int document = matches.nextSetBit(0); document >= 0 && hits.size() < limit; document = matches.nextSetBit(document + 1)) {
+                hits.add(rowIds.get(document));
+            }
+            return new SearchHits(matches.cardinality(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet prefixMatches(String prefix) {
+        BitSet matches = new BitSet(rowIds.size());
+        for (Map.Entry<String, PostingList> entry : postings.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            entry.getValue().addTo(matches);
+        }
+        return matches;
+    }
+
+    private int newDocument(String rowId) {
+        int document;
+        if (freeDocuments.isEmpty()) {
+            document = rowIds.size();
+            rowIds.add(rowId);
+            documentPostings.add(null);
+        } else {
+            document = freeDocuments.pop();
+            rowIds.set(document, rowId);
+        }
+        documentsByRowId.put(rowId, document);
+        return document;
+    }
+
+    private void unlink(int document) {
+        PostingList[] documentLists = documentPostings.get(document);
+        if (documentLists == null) {
+            return;
+        }
+        for (PostingList postingList : documentLists) {
+            postingList.remove(document);
+            if (postingList.isEmpty()) {
+                postings.remove(postingList.getToken());
+            }
+        }
+        documentPostings.set(document, null);
+    }
+
+    public record SearchHits(int total, List<String> rowIds) {
+    }
+
+}
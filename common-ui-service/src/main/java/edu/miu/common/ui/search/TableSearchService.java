@@ -0,0 +1,82 @@
+package edu.miu.common.ui.search;
+
+import edu.miu.common.ui.service.contract.TableSearchResult;
+import edu.miu.common.ui.utils.CommonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Keeps one TableSearchIndex per table name. Rows are indexed with the same display values the table renders,
+    so a search finds what the user sees, formatters included.
+
+    E.g. tableSearchService.register("students", "id", List.of("firstName", "lastName", "email"));
+         tableSearchService.index("students", studentRepository.findAll());
+         tableSearchService.update("students", savedStudent);
+ */
+@Slf4j
+@Component
+public class TableSearchService {
+
+    private final CommonUtils commonUtils;
+
+    private final Map<String, IndexedTable> tables = new ConcurrentHashMap<>();
+
+    public TableSearchService(CommonUtils commonUtils) {
+        this.commonUtils = commonUtils;
+    }
+
+    public void register(String tableName, String rowIdAttribute, List<String> attributeNames) {
+        tables.put(tableName, new IndexedTable(rowIdAttribute, List.copyOf(attributeNames), new TableSearchIndex()));
+    }
+
+    public boolean isRegistered(String tableName) {
+        return tables.containsKey(tableName);
+    }
+
+    // Replaces the whole content of the index
+    public void index(String tableName, Collection<?> rows) {
+        IndexedTable table = getTable(tableName);
+        table.index().clear();
+        rows.forEach(row -> put(table, row));
+        log.debug("Search index built for table: {}, rows: {}", tableName, table.index().size());
+    }
+
+    // Adds the row, or replaces it when the row id is indexed already
+    public void update(String tableName, Object row) {
+        put(getTable(tableName), row);
+    }
+
+    public void remove(String tableName, String rowId) {
+        getTable(tableName).index().remove(rowId);
+    }
+
+    public TableSearchResult search(String tableName, String query, int limit) {
+        TableSearchIndex.SearchHits hits = getTable(tableName).index().search(query, limit);
+        return new TableSearchResult(query, hits.total(), hits.rowIds());
+    }
+
+    private void put(IndexedTable table, Object row) {
+        String rowId = commonUtils.getTextByHeader(row, table.rowIdAttribute());
+        List<String> values = table.attributeNames().stream()
+                .map(attributeName -> commonUtils.getTextByHeader(row, attributeName))
+                .toList();
+        table.index().put(rowId, values);
+    }
+
+    private IndexedTable getTable(String tableName) {
+        IndexedTable table = tables.get(tableName);
+        if (Objects.isNull(table)) {
+            throw new IllegalArgumentException("No search index registered for table: " + tableName);
+        }
+        return table;
+    }
+
+    private record IndexedTable(String rowIdAttribute, List<String> attributeNames, TableSearchIndex index) {
+    }
+
+}
@@ -0,0 +1,153 @@
+package edu.miu.common.ui.selection;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/* Compressed set of numeric row ids, split in chunks of 65536 ids by their high bits like a roaring bitmap.
+    A chunk keeps a sorted array of its low 16 bits while it is sparse and switches to a bit set once the array would
+    be larger, so a handful of scattered ids and a range of a million ids both stay small.
+ */
+public class RowIdBitmap implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final int CHUNK_BITS = 16;
+
+    private static final int LOW_MASK = (1 << CHUNK_BITS) - 1;
+
+    // 4096 chars take the same 8 KB as a bit set of the whole chunk
+    private static final int MAX_ARRAY_SIZE = 4096;
+
+    private final TreeMap<Long, Chunk> chunks = new TreeMap<>();
+
+    public boolean add(long rowId) {
+        checkRowId(rowId);
+        return chunks.computeIfAbsent(rowId >>> CHUNK_BITS, high -> new Chunk()).add((int) (rowId & LOW_MASK));
+    }
+
+    public boolean remove(long rowId) {
+        checkRowId(rowId);
+        Chunk chunk = chunks.get(rowId >>> CHUNK_BITS);
+        if (chunk == null || !chunk.remove((int) (rowId & LOW_MASK))) {
+            return false;
+        }
+        if (chunk.isEmpty()) {
+            chunks.remove(rowId >>> CHUNK_BITS);
+        }
+        return true;
+    }
+
+    public boolean contains(long rowId) {
+        Chunk chunk = rowId < 0 ? null : chunks.get(rowId >>> CHUNK_BITS);
+        return chunk != null && chunk.contains((int) (rowId & LOW_MASK));
+    }
+
+    public long cardinality() {
+        return chunks.values().stream().mapToLong(Chunk::cardinality).sum();
+    }
+
+    public boolean isEmpty() {
+        return chunks.isEmpty();
+    }
+
+    public void clear() {
+        chunks.clear();
+    }
+
+    // Row ids in ascending order
+    public LongStream stream() {
+        return chunks.entrySet().stream().flatMapToLong(this::chunkIds);
+    }
+
+    private LongStream chunkIds(Map.Entry<Long, Chunk> entry) {
+        long high = entry.getKey() << CHUNK_BITS;
+        return entry.getValue().stream().mapToLong(low -> high | low);
+    }
+
+    private static void checkRowId(long rowId) {
+        if (rowId < 0) {
+            throw new IllegalArgumentException("Row ids of a selection must not be negative: " + rowId);
+        }
+    }
+
+    private static final class Chunk implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private char[] values = new char[4];
+
+        private int size;
+
+        private BitSet bits;
+
+        boolean add(int low) {
+            if (bits != null) {
+                boolean added = !bits.get(low);
+                bits.set(low);
+                return added;
+            }
+            int position = Arrays.binarySearch(values, 0, size, (char) low);
+            if (position >= 0) {
+                return false;
+            }
+            if (size == MAX_ARRAY_SIZE) {
+                bits = new BitSet(LOW_MASK + 1);
+                for (int i = 0; i < size; i++) {
+                    bits.set(values[i]);
+                }
+                bits.set(low);
+                values = null;
+                return true;
+            }
+            int insertion = -(position + 1);
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, MAX_ARRAY_SIZE));
+            }
+            System.arraycopy(values, insertion, values, insertion + 1, size - insertion);
+            values[insertion] = (char) low;
+            size++;
+            return true;
+        }
+
+        boolean remove(int low) {
+            if (bits != null) {
+                boolean removed = bits.get(low);
+                bits.clear(low);
+                return removed;
+            }
+            int position = Arrays.binarySearch(values, 0, size, (char) low);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int low) {
+            return bits != null ? bits.get(low) : Arrays.binarySearch(values, 0, size, (char) low) >= 0;
+        }
+
+        long cardinality() {
+            return bits != null ? bits.cardinality() : size;
+        }
+
+        boolean isEmpty() {
+            return bits != null ? bits.isEmpty() : size == 0;
+        }
+
+        IntStream stream() {
+            return bits != null ? bits.stream() : IntStream.range(0, size).map(i -> values[i]);
+        }
+
+    }
+
+}
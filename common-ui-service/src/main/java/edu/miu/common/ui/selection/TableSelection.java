@@ -0,0 +1,132 @@
+package edu.miu.common.ui.selection;
+
+import edu.miu.common.ui.service.contract.TableSelectionDelta;
+import edu.miu.common.ui.service.contract.TableSelectionState;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+/* Rows selected in one table of one session, across every page.
+    In the default mode the bitmap holds the selected row ids. Select all switches to the inverted mode, where every
+    row matching the filter is selected and the bitmap holds the rows unchecked afterwards, so selecting a million rows
+    costs nothing until the selection is consumed.
+ */
+public class TableSelection implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final RowIdBitmap rowIds = new RowIdBitmap();
+
+    private boolean allMatching;
+
+    private String filter;
+
+    // Incremented on every change, it makes the selection part of the ETag of the pages rendering it
+    private long version;
+
+    public synchronized void apply(TableSelectionDelta delta) {
+        if (Boolean.TRUE.equals(delta.getSelectAll())) {
+            selectAll(delta.getFilter());
+        } else if (Boolean.FALSE.equals(delta.getSelectAll())) {
+            clear();
+        }
+        delta.getSelected().forEach(this::select);
+        delta.getDeselected().forEach(this::deselect);
+    }
+
+    public synchronized void select(long rowId) {
+        version++;
+        if (allMatching) {
+            rowIds.remove(rowId);
+        } else {
+            rowIds.add(rowId);
+        }
+    }
+
+    public synchronized void deselect(long rowId) {
+        version++;
+        if (allMatching) {
+            rowIds.add(rowId);
+        } else {
+            rowIds.remove(rowId);
+        }
+    }
+
+    public synchronized void selectAll(String filter) {
+        version++;
+        rowIds.clear();
+        allMatching = true;
+        this.filter = filter;
+    }
+
+    public synchronized void clear() {
+        version++;
+        rowIds.clear();
+        allMatching = false;
+        filter = null;
+    }
+
+    // Only meaningful for rows matching the filter, which are the only ones the table shows
+    public synchronized boolean isSelected(long rowId) {
+        return allMatching != rowIds.contains(rowId);
+    }
+
+    // Row ids come from the templates as they are rendered, usually a Long but possibly its text
+    public boolean isSelected(Object rowId) {
+        if (rowId instanceof Number number) {
+            return isSelected(number.longValue());
+        }
+        try {
+            return Objects.nonNull(rowId) && isSelected(Long.parseLong(rowId.toString().trim()));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public synchronized boolean isAllMatching() {
+        return allMatching;
+    }
+
+    public synchronized boolean isEmpty() {
+        return !allMatching && rowIds.isEmpty();
+    }
+
+    /* Selected row ids in ascending order. In the inverted mode the rows matching the filter come from the application,
+        usually an id-only query, and the excluded ones are skipped while they stream through.
+
+        E.g. selection.selectedIds(filter -> studentRepository.findIdsBySearch(filter).stream().mapToLong(Long::longValue))
+     */
+    public LongStream selectedIds(Function<String, LongStream> matchingIds) {
+        RowIdBitmap excluded;
+        String currentFilter;
+        synchronized (this) {
+            // A snapshot, the selection keeps changing while a long export consumes the ids
+            if (!allMatching) {
+                return LongStream.of(rowIds.stream().toArray());
+            }
+            excluded = copy(rowIds);
+            currentFilter = filter;
+        }
+        return matchingIds.apply(currentFilter).filter(rowId -> !excluded.contains(rowId));
+    }
+
+    public synchronized TableSelectionState getState() {
+        return new TableSelectionState(allMatching, filter, rowIds.cardinality());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TableSelection[allMatching=" + allMatching + ", filter=" + filter + ", version=" + version + "]";
+    }
+
+    private static RowIdBitmap copy(RowIdBitmap source) {
+        RowIdBitmap copy = new RowIdBitmap();
+        source.stream().forEach(copy::add);
+        return copy;
+    }
+
+}
@@ -0,0 +1,67 @@
+package edu.miu.common.ui.selection;
+
+import edu.miu.common.ui.service.contract.TableSelectionDelta;
+import edu.miu.common.ui.service.contract.TableSelectionState;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.util.WebUtils;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+/* Keeps the TableSelection of every table in the HTTP session, so selections survive pagination and never leave the
+    server. Export and bulk actions read the selected ids here instead of receiving the rows from the browser.
+
+    E.g. tableSelectionService.selectedIds(session, "students", filter -> studentRepository.findIdsBySearch(filter))
+             .forEach(studentService::archive);
+ */
+@Slf4j
+@Component
+public class TableSelectionService {
+
+    static final String SESSION_ATTRIBUTE_PREFIX = "commonUI.tableSelection.";
+
+    public TableSelection getSelection(HttpSession session, String tableName) {
+        String attributeName = SESSION_ATTRIBUTE_PREFIX + tableName;
+        // Requests of the same session can race to create the selection
+        synchronized (WebUtils.getSessionMutex(session)) {
+            TableSelection selection = (TableSelection) session.getAttribute(attributeName);
+            if (Objects.isNull(selection)) {
+                selection = new TableSelection();
+                session.setAttribute(attributeName, selection);
+            }
+            return selection;
+        }
+    }
+
+    // Selection of the current request, null outside of a request or when the request has no session yet
+    public TableSelection findCurrentSelection(String tableName) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (Objects.isNull(requestAttributes)) {
+            return null;
+        }
+        return (TableSelection) requestAttributes.getAttribute(SESSION_ATTRIBUTE_PREFIX + tableName, RequestAttributes.SCOPE_SESSION);
+    }
+
+    public TableSelectionState apply(HttpSession session, String tableName, TableSelectionDelta delta) {
+        TableSelection selection = getSelection(session, tableName);
+        selection.apply(delta);
+        // Replicated sessions only notice the change when the attribute is set again
+        session.setAttribute(SESSION_ATTRIBUTE_PREFIX + tableName, selection);
+        log.debug("Selection of table {} updated: {}", tableName, selection.getState());
+        return selection.getState();
+    }
+
+    public void clear(HttpSession session, String tableName) {
+        session.removeAttribute(SESSION_ATTRIBUTE_PREFIX + tableName);
+    }
+
+    public LongStream selectedIds(HttpSession session, String tableName, Function<String, LongStream> matchingIds) {
+        return getSelection(session, tableName).selectedIds(matchingIds);
+    }
+
+}
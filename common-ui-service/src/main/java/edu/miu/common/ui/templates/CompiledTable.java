@@ -0,0 +1,251 @@
+package edu.miu.common.ui.templates;
+
+import edu.miu.common.ui.highlight.RowHighlighter;
+import edu.miu.common.ui.selection.TableSelection;
+import edu.miu.common.ui.utils.CommonUtils;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.util.EvaluationUtils;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/* Renderer of the "framework/fragments/table :: common-table" markup for one column configuration, the header cells,
+    the class strings and the kind of every column are resolved once when the table is compiled. Rendering only reads
+    the values of the rows, escapes them and appends them to a single buffer, without evaluating any expression.
+
+    The output is the markup of table.html with the whitespace between the tags left out, table.html stays the
+    reference and both are compared by CompiledTableTest.
+ */
+public final class CompiledTable {
+
+    private final String[] attributeNames;
+
+    private final String liveColumns;
+
+    // Whole header cells, escaped
+    private final String[] headerCells;
+
+    // Opening of the cell up to the row class and the rest of its class attribute, per attribute column
+    private final String[] cellPrefixes;
+
+    private final String[] cellSuffixes;
+
+    private final boolean[] linkColumns;
+
+    private final boolean[] absolutePathColumns;
+
+    private final String pathColumnName;
+
+    private final String columnParamVariable;
+
+    private final String[] paths;
+
+    private final String[] pathCellSuffixes;
+
+    private final String pathVariableName;
+
+    private final String tableListAttribute;
+
+    private final String rowIdAttribute;
+
+    CompiledTable(List<String> attributeNames, List<String> headerNames, List<String> nonSortable,
+                  List<String> columnTextCenterList, List<String> headerColumnTextCenterList, boolean columnLinkEnable,
+                  String headerColumnName, String pathColumnName, String columnParamVariable, String absolutePathName,
+                  List<String> paths, String pathVariableName, String tableListAttribute, String rowIdAttribute) {
+
+        this.attributeNames = attributeNames.toArray(String[]::new);
+        this.liveColumns = String.join(",", attributeNames);
+
+        headerCells = new String[headerNames.size()];
+        for (int i = 0; i < headerCells.length; i++) {
+            String headerName = headerNames.get(i);
+            String headerClass = "column" + i + " text-nowrap";
+            if (Objects.isNull(nonSortable) || !nonSortable.contains(headerName)) {
+                headerClass += "  sortable " + (contains(headerColumnTextCenterList, headerName) ? "text-center" : "");
+            }
+            headerCells[i] = "<th class=\"" + escape(headerClass) + "\" data-sort-order=\"asc\">" + escape(headerName) + "</th>";
+        }
+
+        cellPrefixes = new String[this.attributeNames.length];
+        cellSuffixes = new String[this.attributeNames.length];
+        linkColumns = new boolean[this.attributeNames.length];
+        absolutePathColumns = new boolean[this.attributeNames.length];
+        for (int j = 0; j < this.attributeNames.length; j++) {
+            String attributeName = this.attributeNames[j];
+            // The class of the cell followed by the appended row class, as th:class and th:classappend join them
+            cellPrefixes[j] = "<td class=\"text-nowrap column" + j + "  ";
+            cellSuffixes[j] = " " + (contains(columnTextCenterList, attributeName) ? " text-center" : "") + "\">";
+            linkColumns[j] = columnLinkEnable && Objects.equals(attributeName, headerColumnName);
+            absolutePathColumns[j] = Objects.equals(attributeName, absolutePathName);
+        }
+        this.pathColumnName = pathColumnName;
+        this.columnParamVariable = columnParamVariable;
+
+        this.paths = paths.toArray(String[]::new);
+        pathCellSuffixes = new String[this.paths.length];
+        for (int k = 0; k < this.paths.length; k++) {
+            pathCellSuffixes[k] = " text-center column" + (headerNames.size() - (k + 1)) + "\">";
+        }
+        this.pathVariableName = pathVariableName;
+        this.tableListAttribute = tableListAttribute;
+        this.rowIdAttribute = rowIdAttribute;
+    }
+
+    // Variables of the page read like table.html reads them, links are built by the context as @{...} builds them
+    public String render(ITemplateContext context) {
+        Collection<?> tableList = context.getVariable("tableList") instanceof Collection<?> rows ? rows : List.of();
+        CommonUtils commonUtils = (CommonUtils) context.getVariable("commonUtils");
+        RowHighlighter rowHighlighter = (RowHighlighter) context.getVariable("rowHighlighter");
+        TableSelection tableSelection = (TableSelection) context.getVariable("tableSelection");
+        Map<?, ?> rowHyperlinkMap = (Map<?, ?>) context.getVariable("rowHyperlinkMap");
+        Object absolutePathLinks = context.getVariable("absolutePathLinks");
+        String liveTablePath = text(context.getVariable("liveTablePath"));
+        String selectionPath = text(context.getVariable("selectionPath"));
+
+        StringBuilder html = new StringBuilder(1024 + tableList.size() * (128 + 96 * attributeNames.length));
+
+        html.append("<div class=\"table-responsive\" data-partial=\"table\"");
+        if (EvaluationUtils.evaluateAsBoolean(context.getVariable("partialRendering"))) {
+            html.append(" data-partial-render=\"true\"");
+        }
+        html.append("><table id=\"table\" class=\"table table-hover\"");
+        if (!isEmpty(liveTablePath)) {
+            attribute(html, "data-live-stream", context.buildLink(liveTablePath, null));
+            attribute(html, "data-live-columns", liveColumns);
+        }
+        if (!isEmpty(selectionPath)) {
+            attribute(html, "data-selection-path", context.buildLink(selectionPath, null));
+            Object selectionFilter = context.getVariable("selectionFilter");
+            if (Objects.nonNull(selectionFilter)) {
+                attribute(html, "data-selection-filter", selectionFilter.toString());
+            }
+        }
+        html.append("><thead class=\"p-3 mb-2 table-hover\"><tr><th>");
+        if (!tableList.isEmpty()) {
+            html.append("<input type=\"checkbox\" id=\"selectAllCheckbox\"");
+            if (Objects.nonNull(tableSelection) && tableSelection.isAllMatching()) {
+                html.append(" checked=\"checked\"");
+            }
+            html.append("/>");
+        }
+        html.append("</th><th></th>");
+        if (!tableList.isEmpty()) {
+            for (String headerCell : headerCells) {
+                html.append(headerCell);
+            }
+        }
+        html.append("</tr></thead><tbody>");
+
+        int count = 0;
+        for (Object content : tableList) {
+            count++;
+            String rowClass = escape(String.valueOf(Objects.nonNull(rowHighlighter)
+                    ? rowHighlighter.rowClass(content) : commonUtils.settingRowBackGroundColor(content)));
+            Object rowId = isEmpty(rowIdAttribute) && Objects.isNull(tableSelection)
+                    ? null : commonUtils.getValueByHeader(content, rowIdAttribute);
+
+            html.append("<tr");
+            if (!isEmpty(rowIdAttribute) && Objects.nonNull(rowId)) {
+                attribute(html, "data-row-id", rowId.toString());
+            }
+            html.append("><td><input class=\"rowCheckbox\" type=\"checkbox\"");
+            if (Objects.nonNull(tableSelection) && tableSelection.isSelected(rowId)) {
+                html.append(" checked=\"checked\"");
+            }
+            html.append("/></td><td class=\"table-light text-center\">").append(count).append("</td>");
+
+            for (int j = 0; j < attributeNames.length; j++) {
+                Object value = commonUtils.getValueByHeader(content, attributeNames[j]);
+                html.append(cellPrefixes[j]).append(rowClass).append(cellSuffixes[j]);
+                Object link = absolutePathColumns[j] ? absolutePathLink(absolutePathLinks, value) : null;
+                if (linkColumns[j]) {
+                    Object linkText = rowHyperlinkMap.containsKey(attributeNames[j])
+                            ? rowHyperlinkMap.get(attributeNames[j]) : value;
+                    html.append("<span><a href=\"")
+                            .append(escape(context.buildLink(pathColumnName, parameter(columnParamVariable, value))))
+                            .append("\">").append(escape(linkText)).append("</a></span>");
+                }
+                if (Objects.isNull(link) && !linkColumns[j]) {
+                    html.append("<span>").append(escape(value)).append("</span>");
+                }
+                if (Objects.nonNull(link)) {
+                    html.append("<span><a href=\"").append(escape(context.buildLink(link.toString(), null)))
+                            .append("\" target=\"_blank\">").append(escape(value)).append("</a></span>");
+                }
+                html.append("</td>");
+            }
+
+            if (paths.length > 0) {
+                Object value = isEmpty(tableListAttribute) ? "" : commonUtils.getValueByHeader(content, tableListAttribute);
+                for (int k = 0; k < paths.length; k++) {
+                    html.append("<td class=\"text-nowrap ").append(rowClass).append(pathCellSuffixes[k]);
+                    if (!isEmpty(paths[k])) {
+                        String href = isEmpty(pathVariableName)
+                                ? context.buildLink(paths[k], null)
+                                : context.buildLink(paths[k], parameter(pathVariableName, value));
+                        html.append("<a href=\"").append(escape(href)).append("\">View</a>");
+                    }
+                    html.append("</td>");
+                }
+            }
+            html.append("</tr>");
+        }
+        html.append("</tbody></table>");
+
+        Map<?, ?> rowHighlightLegend = (Map<?, ?>) context.getVariable("rowHighlightLegend");
+        if (Objects.nonNull(rowHighlightLegend) && !rowHighlightLegend.isEmpty() && !tableList.isEmpty()) {
+            html.append("<table class=\"table table-sm table-bordered w-auto\"><tbody><tr>");
+            rowHighlightLegend.forEach((cssClass, label) -> html.append("<td class=\"small ").append(escape(cssClass))
+                    .append("\">").append(escape(label)).append("</td>"));
+            html.append("</tr></tbody></table>");
+        }
+        if (tableList.isEmpty()) {
+            html.append("<p class=\"fs-5 fw-bold text-center\">No records found.</p>");
+        }
+        return html.append("</div>").toString();
+    }
+
+    // absolutePathLinks defaults to an empty list, only views configuring an absolute path name set it to a map
+    private static Object absolutePathLink(Object absolutePathLinks, Object value) {
+        if (absolutePathLinks instanceof Map<?, ?> links && links.containsKey(String.valueOf(value))) {
+            return links.get(value);
+        }
+        return null;
+    }
+
+    private static Map<String, Object> parameter(String name, Object value) {
+        Map<String, Object> parameters = new HashMap<>(2);
+        parameters.put(name, value);
+        return parameters;
+    }
+
+    // Like th:data-* attributes, attributes with an empty value are left out
+    private static void attribute(StringBuilder html, String name, String value) {
+        if (Objects.isNull(value) || value.isEmpty()) {
+            return;
+        }
+        html.append(' ').append(name).append("=\"").append(escape(value)).append('"');
+    }
+
+    private static boolean contains(List<String> values, String value) {
+        return Objects.nonNull(values) && values.contains(value);
+    }
+
+    // #strings.isEmpty of the templates, blank text is empty too
+    private static boolean isEmpty(String value) {
+        return Objects.isNull(value) || value.isBlank();
+    }
+
+    private static String text(Object value) {
+        return Objects.isNull(value) ? null : value.toString();
+    }
+
+    private static String escape(Object value) {
+        return Objects.isNull(value) ? "" : HtmlEscape.escapeHtml4Xml(value.toString());
+    }
+
+}
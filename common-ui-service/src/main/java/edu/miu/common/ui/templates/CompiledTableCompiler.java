@@ -0,0 +1,87 @@
+package edu.miu.common.ui.templates;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.util.EvaluationUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/* Compiles the column configuration of a table view into a CompiledTable. Views configure their columns the same way
+    on every request, so compiled tables are cached by the attribute values they were compiled from, like the layout
+    plans of the LayoutPlanCompiler.
+ */
+@Slf4j
+@Component
+public class CompiledTableCompiler {
+
+    // Guards against views building their columns dynamically, those are compiled without being cached
+    static final int MAX_CACHED_TABLES = 512;
+
+    private static final String[] COLUMN_ATTRIBUTES = {"attributeNames", "headerNames", "nonSortable",
+            "columnTextCenterList", "headerColumnTextCenterList", "columnLinkEnable", "headerColumnName", "pathColumnName",
+            "columnParamVariable", "absolutePathName", "paths", "pathVariableName", "tableListAttribute", "rowIdAttribute"};
+
+    private final Map<List<Object>, CompiledTable> tables = new ConcurrentHashMap<>();
+
+    public CompiledTable compile(Function<String, ?> attributes) {
+        List<Object> key = tableKey(attributes);
+        CompiledTable table = tables.get(key);
+        if (table != null) {
+            return table;
+        }
+        table = resolve(key);
+        if (tables.size() < MAX_CACHED_TABLES) {
+            tables.putIfAbsent(key, table);
+        } else {
+            log.debug("Compiled table cache is full, table compiled without caching: {}", key);
+        }
+        return table;
+    }
+
+    // Lists are copied, the key must not change when a view reuses and modifies its lists
+    private List<Object> tableKey(Function<String, ?> attributes) {
+        Object[] key = new Object[COLUMN_ATTRIBUTES.length];
+        for (int i = 0; i < COLUMN_ATTRIBUTES.length; i++) {
+            Object value = attributes.apply(COLUMN_ATTRIBUTES[i]);
+            key[i] = value instanceof Collection<?> values ? new ArrayList<>(values) : value;
+        }
+        return Arrays.asList(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompiledTable resolve(List<Object> key) {
+        log.debug("Table compiled for the columns {}", key.get(0));
+        return new CompiledTable(
+                strings(key.get(0)),
+                strings(key.get(1)),
+                (List<String>) key.get(2),
+                (List<String>) key.get(3),
+                (List<String>) key.get(4),
+                EvaluationUtils.evaluateAsBoolean(key.get(5)),
+                text(key.get(6)),
+                text(key.get(7)),
+                text(key.get(8)),
+                text(key.get(9)),
+                strings(key.get(10)),
+                text(key.get(11)),
+                text(key.get(12)),
+                text(key.get(13)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> strings(Object value) {
+        return Objects.isNull(value) ? List.of() : (List<String>) value;
+    }
+
+    private static String text(Object value) {
+        return Objects.isNull(value) ? null : value.toString();
+    }
+
+}
@@ -0,0 +1,85 @@
+package edu.miu.common.ui.templates;
+
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.AbstractConfigurableTemplateResolver;
+import org.thymeleaf.templateresource.ClassLoaderTemplateResource;
+import org.thymeleaf.templateresource.ITemplateResource;
+import org.thymeleaf.templateresource.StringTemplateResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Resolves the framework templates (framework/**) from the classpath and minifies them once, before Thymeleaf parses
+    and caches them. It is ordered before the default Spring Boot resolver, every other template is left to the
+    application resolvers. Per-row indentation in the table fragment is otherwise repeated in every rendered row.
+ */
+@Slf4j
+@Component
+public final class MinifyingTemplateResolver extends AbstractConfigurableTemplateResolver {
+
+    public static final String NAME = "Common UI Minifying Template Resolver";
+
+    private static final int ORDER = 0;
+
+    private final CommonUIConfiguration commonUIConfiguration;
+
+    private final Map<String, Optional<String>> minifiedTemplates = new ConcurrentHashMap<>();
+
+    public MinifyingTemplateResolver(CommonUIConfiguration commonUIConfiguration) {
+        this.commonUIConfiguration = commonUIConfiguration;
+        setName(NAME);
+        setOrder(ORDER);
+        setPrefix("templates/");
+        setSuffix(".html");
+        setTemplateMode(TemplateMode.HTML);
+        setCharacterEncoding("UTF-8");
+        setResolvablePatterns(Set.of("framework/*"));
+        setCheckExistence(true);
+        setCacheable(true);
+    }
+
+    @Override
+    protected ITemplateResource computeTemplateResource(IEngineConfiguration configuration, String ownerTemplate,
+                                                        String template, String resourceName, String characterEncoding,
+                                                        Map<String, Object> templateResolutionAttributes) {
+
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+        if (!commonUIConfiguration.getTemplates().isMinify()) {
+            return new ClassLoaderTemplateResource(classLoader, resourceName, characterEncoding);
+        }
+
+        Optional<String> minified = minifiedTemplates.computeIfAbsent(resourceName,
+                name -> load(classLoader, name, characterEncoding).map(TemplateMinifier::minify));
+
+        // A resource that does not exist lets the engine fall back to the next resolver
+        return minified.<ITemplateResource>map(StringTemplateResource::new)
+                .orElseGet(() -> new ClassLoaderTemplateResource(classLoader, resourceName, characterEncoding));
+    }
+
+    private Optional<String> load(ClassLoader classLoader, String resourceName, String characterEncoding) {
+        try (InputStream inputStream = classLoader.getResourceAsStream(resourceName)) {
+            if (Objects.isNull(inputStream)) {
+                return Optional.empty();
+            }
+            String template = new String(inputStream.readAllBytes(), Charset.forName(characterEncoding));
+            log.debug("Framework template minified: {}", resourceName);
+            return Optional.of(template);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error occurred while reading the template: " + resourceName, e);
+        }
+    }
+
+}
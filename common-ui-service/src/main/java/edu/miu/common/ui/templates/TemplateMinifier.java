@@ -0,0 +1,111 @@
+package edu.miu.common.ui.templates;
+
+/* Minifies framework templates before Thymeleaf parses them.
+    Parser-level comments are removed and whitespace between and around tags collapses to a single character, which
+    the browser renders the same way. Tags, inlined expressions, normal comments and the content of pre, textarea,
+    script and style elements are copied untouched.
+ */
+public final class TemplateMinifier {
+
+    private static final String[] RAW_TEXT_ELEMENTS = {"pre", "textarea", "script", "style"};
+
+    private TemplateMinifier() {
+    }
+
+    public static String minify(String template) {
+        StringBuilder output = new StringBuilder(template.length());
+        int length = template.length();
+        int i = 0;
+
+        while (i < length) {
+            char current = template.charAt(i);
+
+            if (template.startsWith("<!--/*", i) && !template.startsWith("<!--/*/", i)) {
+                // Parser-level comment block, never part of the output
+                i = indexAfter(template, "*/-->", i);
+            } else if (template.startsWith("<!--", i)) {
+                i = copyUntil(template, "-->", i, output);
+            } else if (template.startsWith("[[", i)) {
+                i = copyUntil(template, "]]", i, output);
+            } else if (template.startsWith("[(", i)) {
+                i = copyUntil(template, ")]", i, output);
+            } else if (current == '<' && i + 1 < length && isTagStart(template.charAt(i + 1))) {
+                String rawTextElement = rawTextElement(template, i);
+                i = copyTag(template, i, output);
+                if (rawTextElement != null) {
+                    i = copyRawText(template, rawTextElement, i, output);
+                }
+            } else if (Character.isWhitespace(current)) {
+                boolean newLine = false;
+                while (i < length && Character.isWhitespace(template.charAt(i))) {
+                    newLine |= template.charAt(i) == '\n';
+                    i++;
+                }
+                if (!output.isEmpty() && !Character.isWhitespace(output.charAt(output.length() - 1))) {
+                    output.append(newLine ? '\n' : ' ');
+                }
+            } else {
+                output.append(current);
+                i++;
+            }
+        }
+        return output.toString();
+    }
+
+    private static boolean isTagStart(char next) {
+        return Character.isLetter(next) || next == '/' || next == '!' || next == '?';
+    }
+
+    // Copies a start or end tag, quoted attribute values may contain '>' inside Thymeleaf expressions
+    private static int copyTag(String template, int start, StringBuilder output) {
+        char quote = 0;
+        int i = start;
+        while (i < template.length()) {
+            char current = template.charAt(i++);
+            output.append(current);
+            if (quote != 0) {
+                if (current == quote) {
+                    quote = 0;
+                }
+            } else if (current == '"' || current == '\'') {
+                quote = current;
+            } else if (current == '>') {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static String rawTextElement(String template, int start) {
+        for (String element : RAW_TEXT_ELEMENTS) {
+            int end = start + 1 + element.length();
+            if (template.regionMatches(true, start + 1, element, 0, element.length())
+                    && end < template.length()
+                    && !Character.isLetterOrDigit(template.charAt(end))) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static int copyRawText(String template, String element, int start, StringBuilder output) {
+        String closingTag = "</" + element;
+        int i = start;
+        while (i < template.length() && !template.regionMatches(true, i, closingTag, 0, closingTag.length())) {
+            output.append(template.charAt(i++));
+        }
+        return i;
+    }
+
+    private static int copyUntil(String template, String terminator, int start, StringBuilder output) {
+        int end = indexAfter(template, terminator, start);
+        output.append(template, start, end);
+        return end;
+    }
+
+    private static int indexAfter(String template, String terminator, int start) {
+        int index = template.indexOf(terminator, start);
+        return index < 0 ? template.length() : index + terminator.length();
+    }
+
+}
@@ -1,23 +1,26 @@
 package edu.miu.common.ui.utils;
 
 import edu.miu.common.ui.config.CommonUIConfiguration;
+import edu.miu.common.ui.export.ExcelExport;
+import edu.miu.common.ui.export.ExcelExportEngine;
+import edu.miu.common.ui.export.ExportDataSource;
+import edu.miu.common.ui.export.ExportLayout;
 import edu.miu.common.ui.service.contract.Breadcrumb;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Field;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 
 /* This class needs to be extended by any application that implements the Framework UI */
@@ -26,12 +29,39 @@ public abstract class CommonUtils {
 
     public static final String TABLE_LAYOUT = "framework/layouts/table-layout";
 
+    // Table and pagination of TABLE_LAYOUT only, rendered instead of it for partial requests
+    public static final String TABLE_PARTIAL = "framework/layouts/table-partial";
+
     public static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm a";
 
     @Autowired
     private CommonUIConfiguration commonUIConfiguration;
 
+    @Autowired
+    private ValueFormatterRegistry valueFormatterRegistry;
+
+    @Autowired
+    private ExcelExportEngine excelExportEngine;
+
+    private final Map<Class<?>, Map<String, Optional<Field>>> fieldCache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    private void initiateFormatters() {
+        registerFormatters(valueFormatterRegistry);
+    }
+
     public Object getValueByHeader(Object content, String headerName) {
+        // Formatting is applied once to the final value, with the formatter resolved for this column and value type
+        return valueFormatterRegistry.format(headerName, getRawValueByHeader(content, headerName));
+    }
+
+    // Value before formatting, as compared by the row highlight rules
+    public Object getRawValueByHeader(Object content, String headerName) {
+
+        // Rows read from a RowBuffer or shaped like the export rows are keyed by the header itself
+        if (content instanceof Map<?, ?> row) {
+            return row.get(headerName);
+        }
 
         // Logic added to extract values from nested objects
         String[] path = headerName.split("\\.");
@@ -43,7 +73,6 @@ public abstract class CommonUtils {
             }
             Field field = getFieldByHeaderName(currentObject.getClass(), fieldName);
             if (Objects.nonNull(field)) {
-                field.setAccessible(true);
                 currentObject = extraCustomOperation(field, currentObject);
             } else {
                 // Field not found in the current object
@@ -51,17 +80,40 @@ public abstract class CommonUtils {
                 return null;
             }
         }
-
         return currentObject;
     }
 
+    // Display value as text, as used by the exports
+    public String getTextByHeader(Object content, String headerName) {
+        Object value = getValueByHeader(content, headerName);
+        return Objects.isNull(value) ? "" : value.toString();
+    }
 
-    // Necessary when an Entity has Inheritance.
+    // Looks up every field of a type ahead of its first table, used by the startup warm-up
+    public void primeFieldAccessors(Class<?> type) {
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    getFieldByHeaderName(type, field.getName());
+                }
+            }
+        }
+    }
+
+    // Every cell of a table looks up a field, the lookups are cached per class and the fields made accessible once
     private Field getFieldByHeaderName(Class<?> clazz, String headerName) {
+        return fieldCache.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(headerName, name -> Optional.ofNullable(findField(clazz, name)))
+                .orElse(null);
+    }
+
+    // Necessary when an Entity has Inheritance.
+    private Field findField(Class<?> clazz, String headerName) {
         Field field;
         while (clazz != null && clazz != Object.class) {
             try {
                 field = clazz.getDeclaredField(headerName);
+                field.setAccessible(true);
                 return field;
             } catch (NoSuchFieldException e) {
                 clazz = clazz.getSuperclass(); // Move up in class hierarchy
@@ -74,34 +126,14 @@ public abstract class CommonUtils {
         return map.containsKey(key);
     }
 
+    // Small exports built in memory, large ones go through the ExcelExportEngine and its temporary file directly
     public ByteArrayOutputStream createExcel(List<Map<String, String>> tableData) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            XSSFSheet sheet = workbook.createSheet("Data");
-
-            // Headers
-            List<String> headers = new ArrayList<>(tableData.get(0).keySet());
-            Row headerRow = sheet.createRow(0);
-            IntStream.range(0, headers.size()).forEach(colIndex -> {
-                Cell cell = headerRow.createCell(colIndex);
-                cell.setCellValue(headers.get(colIndex));
-            });
-
-            // Data
-            IntStream.range(0, tableData.size()).forEach(rowIndex -> {
-                Map<String, String> rowData = tableData.get(rowIndex);
-                Row row = sheet.createRow(rowIndex + 1);
-                IntStream.range(0, headers.size()).forEach(colIndex -> {
-                    Cell cell = row.createCell(colIndex);
-                    cell.setCellValue(rowData.get(headers.get(colIndex)));
-                });
-            });
-
+        try (ExcelExport export = excelExportEngine.export(ExportDataSource.of(tableData), "export.xlsx", ExportLayout.SHEETS)) {
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-
+            Files.copy(export.file(), outputStream);
             return outputStream;
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Excel export failed. Error Message: {}", e.getMessage(), e);
             return null;
         }
     }
@@ -155,23 +187,38 @@ public abstract class CommonUtils {
         navbarUrls.put(keyName, linkGenerated);
     }
 
-    // Subclasses must return an empty string if the row should not be highlighted in the table fragment
+    // The authenticated user, otherwise the session, otherwise the client address
+    public static String userOf(HttpServletRequest request) {
+        if (Objects.nonNull(request.getRemoteUser())) {
+            return request.getRemoteUser();
+        }
+        HttpSession session = request.getSession(false);
+        return Objects.nonNull(session) ? session.getId() : request.getRemoteAddr();
+    }
+
+    /* Subclasses must return an empty string if the row should not be highlighted in the table fragment.
+        Declarative row highlight rules are checked first, this method is the fallback for rows none of them matches.
+     */
     public abstract String settingRowBackGroundColor(Object content);
 
     // For applications to implemented and specify the custom configuration of the Common Builder Class
     public abstract void initiateDefaults(Map<String, Object> attributes);
 
+    /* For applications to register formatters by value type or by column, used by the table and every export.
+        LocalDateTime values are formatted with DATE_TIME_FORMAT unless another formatter is registered.
+        E.g. registry.registerType(BigDecimal.class, BigDecimal::toPlainString);
+     */
+    protected void registerFormatters(ValueFormatterRegistry registry) {
+    }
+
     /* For developers to implemented and specify the custom operation to be performed on the value as needed
-        E.g. Formatting a date, converting a list to a string, etc.
+        Formatting by type is better done with registerFormatters, the result of this method is formatted afterwards.
+        The raw field value is returned, LocalDateTime values included: they used to be formatted here and are now
+        formatted by the ValueFormatterRegistry, so overrides calling super receive a LocalDateTime, not a String.
      */
     protected Object extraCustomOperation(Field field, Object content) {
-        Object value;
         try {
-            value = field.get(content);
-            if(Objects.nonNull(value) && value instanceof LocalDateTime localDateTime) {
-                return localDateTime.format(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT));
-            }
-            return value;
+            return field.get(content);
         } catch (IllegalAccessException e) {
             log.error("Error occurred while trying to access the field: {}, Error Message: {}", field.getName(), e.getMessage());
         }
@@ -0,0 +1,100 @@
+package edu.miu.common.ui.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/* Position in a keyset (cursor) paginated table: the sort key values of a boundary row, e.g. [createdOn, id], and whether
+    the requested page comes after or before it. Encoded as an opaque URL safe token for the pagination links.
+
+    E.g. KeysetCursor cursor = KeysetCursor.decode(after);
+         repository.findNextPage(cursor.getKey(0), Long.valueOf(cursor.getKey(1)), PageRequest.ofSize(size + 1));
+ */
+public final class KeysetCursor {
+
+    public enum Direction {
+        AFTER, BEFORE
+    }
+
+    private static final char SEPARATOR = '\u001F';
+
+    private static final char NULL_VALUE = '\u0000';
+
+    private final Direction direction;
+
+    private final List<String> keys;
+
+    private KeysetCursor(Direction direction, List<String> keys) {
+        this.direction = Objects.requireNonNull(direction);
+        this.keys = Collections.unmodifiableList(keys);
+    }
+
+    public static KeysetCursor after(List<String> keys) {
+        return new KeysetCursor(Direction.AFTER, new ArrayList<>(keys));
+    }
+
+    public static KeysetCursor before(List<String> keys) {
+        return new KeysetCursor(Direction.BEFORE, new ArrayList<>(keys));
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public String getKey(int index) {
+        return keys.get(index);
+    }
+
+    public String encode() {
+        StringBuilder token = new StringBuilder();
+        token.append(direction == Direction.AFTER ? 'A' : 'B');
+        for (String key : keys) {
+            token.append(SEPARATOR);
+            if (Objects.isNull(key)) {
+                token.append(NULL_VALUE);
+            } else {
+                token.append(key);
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for an empty token, which is the first page
+    public static KeysetCursor decode(String token) {
+        if (Objects.isNull(token) || token.isBlank()) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor: " + token, e);
+        }
+        if (decoded.isEmpty() || (decoded.charAt(0) != 'A' && decoded.charAt(0) != 'B')) {
+            throw new IllegalArgumentException("Invalid pagination cursor: " + token);
+        }
+
+        List<String> keys = new ArrayList<>();
+        int start = decoded.indexOf(SEPARATOR);
+        while (start >= 0) {
+            int end = decoded.indexOf(SEPARATOR, start + 1);
+            String key = decoded.substring(start + 1, end < 0 ? decoded.length() : end);
+            keys.add(key.equals(String.valueOf(NULL_VALUE)) ? null : key);
+            start = end;
+        }
+        return new KeysetCursor(decoded.charAt(0) == 'A' ? Direction.AFTER : Direction.BEFORE, keys);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor" + direction + keys;
+    }
+
+}
@@ -0,0 +1,52 @@
+package edu.miu.common.ui.utils;
+
+import edu.miu.common.ui.service.contract.KeysetPage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/* Builds the KeysetPage of a cursor paginated table without any COUNT query.
+    The application fetches size + 1 rows from the cursor position: ordered by the sort when the cursor is null or AFTER,
+    and in reverse order when it is BEFORE. The extra row only tells whether there is one more page in that direction.
+ */
+public final class KeysetPagination {
+
+    private KeysetPagination() {
+    }
+
+    public record KeysetSlice<R>(List<R> rows, KeysetPage page) {
+    }
+
+    public static <R> KeysetSlice<R> slice(List<R> fetchedRows, KeysetCursor cursor, int size, String sort,
+                                           Function<R, List<String>> keyExtractor) {
+
+        boolean backwards = Objects.nonNull(cursor) && cursor.getDirection() == KeysetCursor.Direction.BEFORE;
+        boolean hasMore = fetchedRows.size() > size;
+
+        List<R> rows = new ArrayList<>(fetchedRows.subList(0, Math.min(size, fetchedRows.size())));
+        if (backwards) {
+            // Rows before the cursor were fetched in reverse order, they are displayed in the sort order
+            Collections.reverse(rows);
+        }
+
+        KeysetPage page = new KeysetPage();
+        page.setSize(size);
+        page.setSort(sort);
+
+        if (!rows.isEmpty()) {
+            boolean hasPrevious = backwards ? hasMore : Objects.nonNull(cursor);
+            boolean hasNext = backwards || hasMore;
+            if (hasPrevious) {
+                page.setPreviousCursor(KeysetCursor.before(keyExtractor.apply(rows.get(0))).encode());
+            }
+            if (hasNext) {
+                page.setNextCursor(KeysetCursor.after(keyExtractor.apply(rows.get(rows.size() - 1))).encode());
+            }
+        }
+        return new KeysetSlice<>(rows, page);
+    }
+
+}
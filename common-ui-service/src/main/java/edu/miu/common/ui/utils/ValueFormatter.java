@@ -0,0 +1,9 @@
+package edu.miu.common.ui.utils;
+
+/* Formats a table value for display and export. Implementations are shared between threads and must be stateless. */
+@FunctionalInterface
+public interface ValueFormatter<V> {
+
+    String format(V value);
+
+}
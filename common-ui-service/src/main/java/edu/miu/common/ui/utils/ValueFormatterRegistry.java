@@ -0,0 +1,110 @@
+package edu.miu.common.ui.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Formatters used for table values, keyed by value type with optional overrides per column (attribute name).
+    The formatter for a (column, runtime type) pair is resolved once and cached, so rendering and exports only pay a map
+    lookup per value. Type formatters also apply to subclasses and implementations, e.g. Enum or Collection.
+    Values without a formatter are returned as they are.
+
+    E.g. registry.registerType(BigDecimal.class, BigDecimal::toPlainString);
+         registry.registerColumn("student.birthDate", value -> ((LocalDate) value).format(BIRTH_DATE_FORMATTER));
+ */
+@Slf4j
+@Component
+public class ValueFormatterRegistry {
+
+    private static final ValueFormatter<Object> NO_FORMATTER = String::valueOf;
+
+    private final Map<Class<?>, ValueFormatter<?>> typeFormatters = new ConcurrentHashMap<>();
+
+    private final Map<String, ValueFormatter<?>> columnFormatters = new ConcurrentHashMap<>();
+
+    private final Map<ColumnType, ValueFormatter<Object>> resolvedFormatters = new ConcurrentHashMap<>();
+
+    public ValueFormatterRegistry() {
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(CommonUtils.DATE_TIME_FORMAT);
+        typeFormatters.put(LocalDateTime.class, (ValueFormatter<LocalDateTime>) dateTimeFormatter::format);
+    }
+
+    public <V> ValueFormatterRegistry registerType(Class<V> type, ValueFormatter<? super V> formatter) {
+        typeFormatters.put(type, formatter);
+        resolvedFormatters.clear();
+        log.debug("Value formatter registered for type: {}", type.getName());
+        return this;
+    }
+
+    public ValueFormatterRegistry registerColumn(String column, ValueFormatter<?> formatter) {
+        columnFormatters.put(column, formatter);
+        resolvedFormatters.clear();
+        log.debug("Value formatter registered for column: {}", column);
+        return this;
+    }
+
+    public Object format(String column, Object value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        ValueFormatter<Object> formatter = resolve(column, value.getClass());
+        return formatter == NO_FORMATTER ? value : formatter.format(value);
+    }
+
+    // Exports and other text outputs, null values become empty cells
+    public String formatAsText(String column, Object value) {
+        Object formatted = format(column, value);
+        return Objects.isNull(formatted) ? "" : formatted.toString();
+    }
+
+    private ValueFormatter<Object> resolve(String column, Class<?> type) {
+        ColumnType key = new ColumnType(Objects.requireNonNullElse(column, ""), type);
+        ValueFormatter<Object> formatter = resolvedFormatters.get(key);
+        if (formatter == null) {
+            formatter = lookup(key);
+            resolvedFormatters.putIfAbsent(key, formatter);
+        }
+        return formatter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ValueFormatter<Object> lookup(ColumnType key) {
+        ValueFormatter<?> formatter = columnFormatters.get(key.column());
+        if (formatter != null) {
+            return (ValueFormatter<Object>) formatter;
+        }
+
+        // Closest type first: the class itself, its superclasses and then every interface breadth first
+        Deque<Class<?>> candidates = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> type = key.type(); type != null; type = type.getSuperclass()) {
+            candidates.add(type);
+        }
+        while (!candidates.isEmpty()) {
+            Class<?> candidate = candidates.poll();
+            if (!visited.add(candidate)) {
+                continue;
+            }
+            formatter = typeFormatters.get(candidate);
+            if (formatter != null) {
+                return (ValueFormatter<Object>) formatter;
+            }
+            candidates.addAll(List.of(candidate.getInterfaces()));
+        }
+        return NO_FORMATTER;
+    }
+
+    private record ColumnType(String column, Class<?> type) {
+    }
+
+}
@@ -0,0 +1,228 @@
+package edu.miu.common.ui.warmup;
+
+import edu.miu.common.ui.builders.CommonLayoutBuilder;
+import edu.miu.common.ui.builders.StandardLayoutBuilder;
+import edu.miu.common.ui.builders.TableLayoutBuilder;
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import edu.miu.common.ui.export.ExcelExport;
+import edu.miu.common.ui.export.ExcelExportEngine;
+import edu.miu.common.ui.export.ExportDataSource;
+import edu.miu.common.ui.highlight.RowHighlightCompiler;
+import edu.miu.common.ui.service.contract.KeysetPage;
+import edu.miu.common.ui.templates.MinifyingTemplateResolver;
+import edu.miu.common.ui.utils.CommonUtils;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/* Warms the node up once the application is ready, so the first requests after a deploy do not pay for the lazy
+    initialization of the framework:
+
+        templates  every framework template is resolved and minified
+        layouts    the layouts are built and rendered with a synthetic request, which parses and caches every fragment they
+                   include and fills the expression caches of Thymeleaf
+        export     a two row workbook is exported, loading the POI and OOXML classes
+        accessors  the fields of ui.warmup.entity-types are looked up and the ui.row-highlights rule sets are compiled
+
+    The warm-up runs in the ApplicationReadyEvent listener, and Spring Boot only reports the readiness state
+    ACCEPTING_TRAFFIC after every listener of that event has returned, so a load balancer polling the readiness probe
+    sends no traffic to a cold node. A failing step is logged and skipped, the warm-up never stops the application.
+    Disabled with ui.warmup.enabled=false.
+ */
+@Slf4j
+@Component
+public class StartupWarmup {
+
+    private static final String TEMPLATES_PATTERN = "classpath*:templates/framework/**/*.html";
+
+    // Includes the standard layout like an application page
+    private static final String WARMUP_PAGE = "framework/layouts/warm-up";
+
+    private final CommonUIConfiguration commonUIConfiguration;
+
+    private final CommonUtils commonUtils;
+
+    private final ApplicationContext applicationContext;
+
+    private final ServletContext servletContext;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MinifyingTemplateResolver minifyingTemplateResolver;
+
+    private final ObjectProvider<StandardLayoutBuilder> standardLayoutBuilder;
+
+    private final ObjectProvider<TableLayoutBuilder> tableLayoutBuilder;
+
+    private final ExcelExportEngine excelExportEngine;
+
+    private final RowHighlightCompiler rowHighlightCompiler;
+
+    public StartupWarmup(CommonUIConfiguration commonUIConfiguration, CommonUtils commonUtils,
+                         ApplicationContext applicationContext, ServletContext servletContext,
+                         SpringTemplateEngine templateEngine, MinifyingTemplateResolver minifyingTemplateResolver,
+                         ObjectProvider<StandardLayoutBuilder> standardLayoutBuilder,
+                         ObjectProvider<TableLayoutBuilder> tableLayoutBuilder,
+                         ExcelExportEngine excelExportEngine, RowHighlightCompiler rowHighlightCompiler) {
+        this.commonUIConfiguration = commonUIConfiguration;
+        this.commonUtils = commonUtils;
+        this.applicationContext = applicationContext;
+        this.servletContext = servletContext;
+        this.templateEngine = templateEngine;
+        this.minifyingTemplateResolver = minifyingTemplateResolver;
+        this.standardLayoutBuilder = standardLayoutBuilder;
+        this.tableLayoutBuilder = tableLayoutBuilder;
+        this.excelExportEngine = excelExportEngine;
+        this.rowHighlightCompiler = rowHighlightCompiler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        CommonUIConfiguration.Warmup settings = commonUIConfiguration.getWarmup();
+        if (!settings.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        step("templates", this::resolveTemplates);
+        step("layouts", () -> renderLayouts(settings.getRenderIterations()));
+        step("export", this::exportWorkbook);
+        step("accessors", () -> primeAccessors(settings.getEntityTypes()));
+        log.info("Common UI warm-up completed in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private void step(String name, WarmupStep warmupStep) {
+        long start = System.currentTimeMillis();
+        try {
+            warmupStep.run();
+            log.debug("Warm-up of the {} done in {} ms", name, System.currentTimeMillis() - start);
+        } catch (Exception | LinkageError e) {
+            log.warn("Warm-up of the {} failed, they are initialized by the first request instead", name, e);
+        }
+    }
+
+    private void resolveTemplates() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver(applicationContext.getClassLoader())
+                .getResources(TEMPLATES_PATTERN);
+        for (Resource resource : resources) {
+            String path = resource.getURL().toString();
+            String template = path.substring(path.lastIndexOf("templates/framework/") + "templates/".length(),
+                    path.length() - ".html".length());
+            minifyingTemplateResolver.resolveTemplate(templateEngine.getConfiguration(), null, template, null);
+        }
+        log.debug("{} framework templates resolved", resources.length);
+    }
+
+    // Rendered inside a synthetic request, the builders are request scoped
+    private void renderLayouts(int iterations) {
+        HttpServletRequest request = SyntheticRequest.request(servletContext);
+        HttpServletResponse response = SyntheticRequest.response();
+        ServletRequestAttributes requestAttributes = new ServletRequestAttributes(request, response);
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        try {
+            for (int i = 0; i < iterations; i++) {
+                render(WARMUP_PAGE, standardLayoutBuilder.getObject().initiateDefaults()
+                        .withHeadTitle("Warm-up")
+                        .withMainTitle("Warm-up")
+                        .withSearchBoxPath("@{/}"), request, response);
+                render(CommonUtils.TABLE_LAYOUT, table(), request, response);
+                render(CommonUtils.TABLE_LAYOUT, table().withKeysetPagination("/", new KeysetPage()), request, response);
+                render(CommonUtils.TABLE_PARTIAL, table(), request, response);
+            }
+        } finally {
+            requestAttributes.requestCompleted();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    // Without rows, applications read their own entity types in settingRowBackGroundColor
+    private TableLayoutBuilder table() {
+        return tableLayoutBuilder.getObject().initiateDefaults()
+                .withHeadTitle("Warm-up")
+                .withMainTitle("Warm-up")
+                .withSearchBoxPath("@{/}")
+                .withHeaderNames(List.of("Id", "Name"))
+                .withAttributeNames(List.of("id", "name"))
+                .withTableList(List.of());
+    }
+
+    private void render(String template, CommonLayoutBuilder<?> builder, HttpServletRequest request,
+                        HttpServletResponse response) {
+        ExtendedModelMap model = new ExtendedModelMap();
+        builder.build(model);
+        Map<String, Object> variables = new HashMap<>(model);
+        variables.put(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, null));
+        // The head fragment reads the CSRF token, which Spring Security adds to real requests
+        variables.putIfAbsent("_csrf", Map.of("token", "", "headerName", "X-CSRF-TOKEN", "parameterName", "_csrf"));
+        WebContext context = new WebContext(JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(request, response), Locale.getDefault(), variables);
+        templateEngine.process(template, context, Writer.nullWriter());
+    }
+
+    private void exportWorkbook() throws IOException {
+        ExportDataSource source = new ExportDataSource() {
+
+            @Override
+            public List<String> getHeaders() {
+                return List.of("Id", "Name");
+            }
+
+            @Override
+            public int getRowCount() {
+                return 2;
+            }
+
+            @Override
+            public List<String> getRow(int rowIndex) {
+                return List.of(Integer.toString(rowIndex + 1), "Warm-up");
+            }
+
+        };
+        try (ExcelExport export = excelExportEngine.export(source, "warm-up.xlsx")) {
+            log.debug("Warm-up workbook of {} bytes exported", export.size());
+        }
+    }
+
+    private void primeAccessors(List<String> entityTypes) throws ClassNotFoundException {
+        List<String> primed = new ArrayList<>();
+        for (String entityType : entityTypes) {
+            commonUtils.primeFieldAccessors(ClassUtils.forName(entityType, applicationContext.getClassLoader()));
+            primed.add(entityType);
+        }
+        // Compiling the configured rule sets also reports mistakes in them at startup instead of on the first table
+        commonUIConfiguration.getRowHighlights().values().forEach(rowHighlightCompiler::compile);
+        log.debug("Field accessors primed for {}", primed);
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+
+        void run() throws Exception;
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package edu.miu.common.ui.warmup;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/* Anonymous GET request to "/" and its response, used to build and render the layouts before the first real request.
+    Only what the builders and the templates read is answered, every other method returns null, false or 0.
+ */
+final class SyntheticRequest {
+
+    private SyntheticRequest() {
+    }
+
+    static HttpServletRequest request(ServletContext servletContext) {
+        Map<String, Object> attributes = new HashMap<>();
+        return (HttpServletRequest) Proxy.newProxyInstance(SyntheticRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getAttribute" -> attributes.get((String) args[0]);
+                    case "setAttribute" -> attributes.put((String) args[0], args[1]);
+                    case "removeAttribute" -> attributes.remove((String) args[0]);
+                    case "getAttributeNames" -> Collections.enumeration(attributes.keySet());
+                    case "getServletContext" -> servletContext;
+                    case "getMethod" -> "GET";
+                    case "getScheme" -> "http";
+                    case "getProtocol" -> "HTTP/1.1";
+                    case "getServerName", "getRemoteHost" -> "localhost";
+                    case "getServerPort" -> 80;
+                    case "getContextPath", "getServletPath" -> "";
+                    case "getRequestURI" -> "/";
+                    case "getRequestURL" -> new StringBuffer("http://localhost/");
+                    case "getCharacterEncoding" -> StandardCharsets.UTF_8.name();
+                    case "getLocale" -> Locale.getDefault();
+                    case "getLocales" -> Collections.enumeration(List.of(Locale.getDefault()));
+                    case "getDispatcherType" -> DispatcherType.REQUEST;
+                    case "getParameterMap" -> Map.of();
+                    case "getHeaders", "getHeaderNames", "getParameterNames" -> Collections.emptyEnumeration();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "SyntheticRequest[GET /]";
+                    default -> defaultValue(method);
+                });
+    }
+
+    static HttpServletResponse response() {
+        return (HttpServletResponse) Proxy.newProxyInstance(SyntheticRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "encodeURL", "encodeRedirectURL" -> args[0];
+                    case "getCharacterEncoding" -> StandardCharsets.UTF_8.name();
+                    case "getLocale" -> Locale.getDefault();
+                    case "getStatus" -> HttpServletResponse.SC_OK;
+                    case "getHeaderNames", "getHeaders" -> Collections.emptyList();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "SyntheticResponse";
+                    default -> defaultValue(method);
+                });
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+}
@@ -1,7 +1,7 @@
 $(document).ready(function() {
 
-    // Order the Columns
-    $("th.sortable").click(function(){
+    // Order the Columns, handlers of the table are delegated so they keep working once the table is swapped
+    $(document).on("click", "th.sortable", function(){
         let table = $(this).parents('table').eq(0)
         let rows = table.find('tr:gt(0)').toArray().sort(comparer($(this).index()))
         this.asc = !this.asc
@@ -17,8 +17,15 @@ $(document).ready(function() {
     function getCellValue(row, index){ return $(row).children('td').eq(index).text() }
 
     // Search functionality
+    let searchTimer = null;
     $("#searchInput").on("keyup", function() {
-        let value = $(this).val().toLowerCase();
+        let input = $(this);
+        if (input.data('search-path')) {
+            clearTimeout(searchTimer);
+            searchTimer = setTimeout(function() { searchTableIndex(input); }, 200);
+            return;
+        }
+        let value = input.val().toLowerCase();
         $("#table tbody tr").filter(function() {
             $(this).toggle($(this).text().toLowerCase().indexOf(value) > -1)
         });
@@ -32,11 +39,19 @@ $(document).ready(function() {
         columnCheckBoxes.prop('checked', this.checked).change();
     });
 
+    // Projected tables only render the visible columns, the choice is saved on the server once the user stops clicking
+    let columnPreferencePath = $('#columnPreferencePath').val();
+    let columnPreferenceTimer = null;
+
     columnCheckBoxes.change(function() {
         let columnClass = this.id;
         $("." + columnClass).toggle(this.checked);
         let allChecked = columnCheckBoxes.length === columnCheckBoxes.filter(":checked").length;
         allCheckBox.prop('checked', allChecked);
+        if (columnPreferencePath) {
+            clearTimeout(columnPreferenceTimer);
+            columnPreferenceTimer = setTimeout(function() { saveColumnPreference(columnPreferencePath); }, 500);
+        }
     });
 
     // Show the dropdown menu on hover
@@ -65,7 +80,7 @@ $(document).ready(function() {
 
         let payload = {
             tableData: tableArray,
-            filename: filename + ".xlsx"
+            filename: filename
         };
 
         let jsonData = JSON.stringify(payload);
@@ -83,9 +98,13 @@ $(document).ready(function() {
             success: function(response, status, xhr) {
                 let blob = response;
 
+                // Large exports come back as a zip archive of several workbooks, named by the server
+                let disposition = xhr.getResponseHeader('Content-Disposition') || '';
+                let serverFilename = disposition.match(/filename="([^"]+)"/);
+
                 let link = document.createElement('a');
                 link.href = window.URL.createObjectURL(blob);
-                link.download = filename;
+                link.download = serverFilename ? serverFilename[1] : filename;
                 document.body.appendChild(link);
                 link.click();
                 document.body.removeChild(link);
@@ -102,11 +121,22 @@ $(document).ready(function() {
         window.print();
     });
 
-    $('#selectAllCheckbox').on('change', function() {
+    $(document).on('change', '#selectAllCheckbox', function() {
+        let selectionTable = $('#table[data-selection-path]');
         $('.rowCheckbox').prop('checked', $(this).prop('checked'));
+        if (selectionTable.length) {
+            queueSelectionChange(selectionTable, { selectAll: $(this).prop('checked') });
+        }
     });
 
-    $('.rowCheckbox').on('change', function() {
+    $(document).on('change', '.rowCheckbox', function() {
+        let selectionTable = $('#table[data-selection-path]');
+        // A server side select all stays checked, it covers the rows of the other pages as well
+        if (selectionTable.length) {
+            let rowId = $(this).closest('tr').data('row-id');
+            queueSelectionChange(selectionTable, { rowId: rowId, checked: $(this).prop('checked') });
+            return;
+        }
         // Check if all checkboxes are selected
         if ($('.rowCheckbox:checked').length === $('.rowCheckbox').length) {
             $('#selectAllCheckbox').prop('checked', true);
@@ -115,6 +145,32 @@ $(document).ready(function() {
         }
     });
 
+    // Live Table: rows are patched with the changes pushed by the server
+    let liveTable = $('#table[data-live-stream]');
+    if (liveTable.length && window.EventSource) {
+        subscribeToLiveTable(liveTable);
+    }
+
+    // Partial rendering: paging and page size changes only fetch the table and the pagination
+    $(document).on('click', '[data-partial="pagination"] a.page-link', function(event) {
+        if (partialRenderingEnabled() && isSamePage(this.href)) {
+            event.preventDefault();
+            loadPartial(this.href, true);
+        }
+    });
+    $('#searchForm').on('submit', function(event) {
+        let url = new URL(this.action || window.location.href, window.location.href);
+        url.search = $(this).serialize();
+        if (partialRenderingEnabled() && isSamePage(url.href)) {
+            event.preventDefault();
+            loadPartial(url.href, true);
+        }
+    });
+    window.addEventListener('popstate', function(event) {
+        if (event.state && event.state.partial) {
+            loadPartial(window.location.href, false);
+        }
+    });
 
 });
 
@@ -125,6 +181,28 @@ function dismissMessage(alertId) {
     });
 }
 
+function saveColumnPreference(path) {
+    let visibleColumns = $('input[data-column-attribute]:checked').map(function() {
+        return $(this).attr('data-column-attribute');
+    }).get();
+    // A table needs at least one column, unchecking them all keeps the current ones
+    if (!visibleColumns.length) {
+        return;
+    }
+    $.ajax({
+        type: 'POST',
+        url: path,
+        data: JSON.stringify({ visibleColumns: visibleColumns }),
+        contentType: 'application/json',
+        success: function() {
+            window.location.reload();
+        },
+        error: function(xhr, status, error) {
+            console.error('Saving the visible columns failed:', error);
+        }
+    });
+}
+
 function getSelectedOrAllRowsData() {
     let tableArray = [];
     let selectedRows = $('#table tbody tr').has('td input[type="checkbox"]:checked');
@@ -145,5 +223,190 @@ function getSelectedOrAllRowsData() {
 }
 
 function changePageSize() {
-    $("#searchForm").submit();
-}
\ No newline at end of file
+    // requestSubmit fires the submit handlers, so the page size change can be rendered partially
+    let form = document.getElementById('searchForm');
+    if (form.requestSubmit) {
+        form.requestSubmit();
+    } else {
+        form.submit();
+    }
+}
+
+function partialRenderingEnabled() {
+    return $('[data-partial="table"][data-partial-render]').length > 0 && window.fetch && window.history.pushState;
+}
+
+// Other pages have their own titles and menus, only links to the current page are rendered partially
+function isSamePage(href) {
+    let url = new URL(href, window.location.href);
+    return url.origin === window.location.origin && url.pathname === window.location.pathname;
+}
+
+function loadPartial(url, pushHistory) {
+    fetch(url, { headers: { 'X-Common-UI-Partial': 'table' }, credentials: 'same-origin' })
+        .then(function(response) {
+            // The view does not support partial rendering, or the request ended on another page
+            if (!response.ok || !response.headers.get('X-Common-UI-Partial') || !isSamePage(response.url)) {
+                window.location.href = url;
+                return;
+            }
+            return response.text().then(function(html) {
+                swapPartials(html, url);
+                if (pushHistory) {
+                    if (!(window.history.state && window.history.state.partial)) {
+                        window.history.replaceState({ partial: true }, '', window.location.href);
+                    }
+                    window.history.pushState({ partial: true }, '', url);
+                }
+            });
+        })
+        .catch(function() {
+            window.location.href = url;
+        });
+}
+
+function swapPartials(html, url) {
+    let parsed = $('<div>').append($.parseHTML(html));
+    parsed.find('[data-partial]').each(function() {
+        $('[data-partial="' + $(this).attr('data-partial') + '"]').first().replaceWith(this);
+    });
+    // Columns hidden through the Columns dropdown stay hidden
+    $('.form-check-input').not('#selectAll').not(':checked').each(function() {
+        $('.' + this.id).hide();
+    });
+    // Going back and forward restores the page size of that page
+    let size = new URL(url, window.location.href).searchParams.get('size');
+    if (size && $('#pageSize option[value="' + size + '"]').length) {
+        $('#pageSize').val(size);
+    }
+}
+
+// Selection changes are merged per row and sent in one small delta once the user pauses
+let pendingSelection = { selectAll: null, rows: new Map() };
+let selectionTimer = null;
+
+function queueSelectionChange(table, change) {
+    if (change.selectAll !== undefined) {
+        pendingSelection = { selectAll: change.selectAll, rows: new Map() };
+    } else {
+        pendingSelection.rows.set(change.rowId, change.checked);
+    }
+    clearTimeout(selectionTimer);
+    selectionTimer = setTimeout(function() { sendSelectionChanges(table); }, 300);
+}
+
+function sendSelectionChanges(table) {
+    let delta = {
+        selectAll: pendingSelection.selectAll,
+        filter: table.data('selection-filter') || '',
+        selected: [],
+        deselected: []
+    };
+    pendingSelection.rows.forEach(function(checked, rowId) {
+        (checked ? delta.selected : delta.deselected).push(rowId);
+    });
+    pendingSelection = { selectAll: null, rows: new Map() };
+
+    $.ajax({
+        type: 'POST',
+        url: table.data('selection-path'),
+        data: JSON.stringify(delta),
+        contentType: 'application/json',
+        error: function(xhr, status, error) {
+            console.error('Selection sync failed:', error);
+        }
+    });
+}
+
+// Asks the server side index for the matching row ids, the input reports how many rows match across all pages
+function searchTableIndex(input) {
+    let query = input.val().trim();
+    let rows = $("#table tbody tr");
+    if (!query) {
+        rows.show();
+        input.removeAttr('title');
+        return;
+    }
+    $.getJSON(input.data('search-path'), { q: query, limit: 10000 }, function(result) {
+        // A newer query was typed while this one was running
+        if (input.val().trim() !== query) {
+            return;
+        }
+        let matches = new Set(result.rowIds);
+        rows.each(function() {
+            $(this).toggle(matches.has(String($(this).data('row-id'))));
+        });
+        input.attr('title', result.total + ' matching rows');
+    });
+}
+
+function subscribeToLiveTable(table) {
+    let columns = String(table.data('live-columns') || '').split(',');
+    let source = new EventSource(table.data('live-stream'));
+    let reconnecting = false;
+
+    source.addEventListener('rows', function(event) {
+        // The table element is replaced by partial renderings, it is looked up for every change
+        JSON.parse(event.data).forEach(function(change) {
+            applyRowChange($('#table'), columns, change);
+        });
+    });
+
+    // The server could not keep up with this page, or changes may have been missed while disconnected
+    source.addEventListener('resync', function() {
+        source.close();
+        window.location.reload();
+    });
+    source.onerror = function() {
+        reconnecting = true;
+    };
+    source.onopen = function() {
+        if (reconnecting) {
+            window.location.reload();
+        }
+    };
+}
+
+function applyRowChange(table, columns, change) {
+    let row = table.find('tbody tr').filter(function() {
+        return String($(this).data('row-id')) === String(change.rowId);
+    });
+
+    if (change.type === 'DELETE') {
+        row.remove();
+        renumberRows(table);
+        return;
+    }
+
+    if (!row.length) {
+        let templateRow = table.find('tbody tr').first();
+        // Links can only be built by the server, rows with links are rendered again with the page
+        if (!templateRow.length || templateRow.find('a').length) {
+            window.location.reload();
+            return;
+        }
+        row = templateRow.clone();
+        row.attr('data-row-id', change.rowId).data('row-id', change.rowId);
+        row.find('.rowCheckbox').prop('checked', false);
+        table.find('tbody').append(row);
+        renumberRows(table);
+    }
+
+    columns.forEach(function(column, index) {
+        if (Object.prototype.hasOwnProperty.call(change.values, column)) {
+            // The first two cells are the checkbox and the index
+            let cell = row.children('td').eq(index + 2);
+            let target = cell.find('a').first();
+            if (!target.length) {
+                target = cell.find('span').first();
+            }
+            (target.length ? target : cell).text(change.values[column]);
+        }
+    });
+}
+
+function renumberRows(table) {
+    table.find('tbody tr').each(function(index) {
+        $(this).children('td').eq(1).text(index + 1);
+    });
+}
@@ -0,0 +1,261 @@
+package edu.miu.common.ui;
+
+import edu.miu.common.ui.builders.StandardLayoutBuilder;
+import edu.miu.common.ui.builders.TableLayoutBuilder;
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import edu.miu.common.ui.dialect.CommonUIDialect;
+import edu.miu.common.ui.export.ExcelExport;
+import edu.miu.common.ui.export.ExcelExportEngine;
+import edu.miu.common.ui.export.ExportDataSource;
+import edu.miu.common.ui.layout.LayoutPlanCompiler;
+import edu.miu.common.ui.templates.CompiledTableCompiler;
+import edu.miu.common.ui.templates.MinifyingTemplateResolver;
+import edu.miu.common.ui.utils.CommonUtils;
+import edu.miu.common.ui.utils.TestCommonUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.linkbuilder.StandardLinkBuilder;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/* Keeps the memory the library allocates within the budgets of allocation-budgets.properties on every build. The
+    bytes allocated by every thread are read from the ThreadMXBean around each operation, so the export workers are
+    counted too, and the median of the measured runs is compared after warm-up runs that let the JIT settle.
+
+    Tables and exports are measured at two sizes, the difference gives the cost of one row, and the smaller size is
+    kept as a whole so a change to the fixed cost of a rendering or an export shows up as well. Measurements vary with
+    the JDK and the garbage collector, a measurement fails only when it exceeds its budget by more than the TOLERANCE.
+
+    The harness AllocationBudgetCheck is the detailed report: it measures whole requests and lists the code allocating
+    the most, e.g. mvn -Pharness,allocation-budgets -pl common-ui-harness -am verify
+ */
+class AllocationBudgetTest {
+
+    private static final double TOLERANCE = 1.5;
+
+    private static final int SMALL = 100;
+
+    private static final int LARGE = 500;
+
+    private static final int WARMUP = 20;
+
+    private static final int RUNS = 11;
+
+    private static final int INITIATE_DEFAULTS_CALLS = 1000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final CommonUtils COMMON_UTILS = new TestCommonUtils();
+
+    private static final Properties BUDGETS = new Properties();
+
+    private static CommonUIConfiguration commonUIConfiguration;
+
+    private static SpringTemplateEngine templateEngine;
+
+    private static ExcelExportEngine excelExportEngine;
+
+    private final Map<String, Double> measurements = new LinkedHashMap<>();
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        assertThat(THREADS.isThreadAllocatedMemorySupported()).as("Thread allocation accounting of the JVM").isTrue();
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        try (InputStream input = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            BUDGETS.load(input);
+        }
+
+        commonUIConfiguration = new CommonUIConfiguration();
+        commonUIConfiguration.setUrls(Map.of("home", "/"));
+        commonUIConfiguration.setNavbarItems(List.of());
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(new MinifyingTemplateResolver(commonUIConfiguration));
+        templateEngine.setLinkBuilder(new StandardLinkBuilder() {
+            @Override
+            protected String computeContextPath(IExpressionContext context, String base, Map<String, Object> parameters) {
+                return "";
+            }
+        });
+        templateEngine.addDialect(new CommonUIDialect(new LayoutPlanCompiler(), new CompiledTableCompiler()));
+        excelExportEngine = new ExcelExportEngine(commonUIConfiguration);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        excelExportEngine.shutdown();
+    }
+
+    @Test
+    void initiateDefaultsStaysWithinBudget() {
+        StandardLayoutBuilder standardLayoutBuilder = new StandardLayoutBuilder(COMMON_UTILS, commonUIConfiguration);
+        TableLayoutBuilder tableLayoutBuilder = new TableLayoutBuilder(COMMON_UTILS, commonUIConfiguration);
+
+        measurements.put("initiate-defaults.standard.bytes-per-call",
+                measure(() -> repeat(INITIATE_DEFAULTS_CALLS, standardLayoutBuilder::initiateDefaults)) / INITIATE_DEFAULTS_CALLS);
+        measurements.put("initiate-defaults.table.bytes-per-call",
+                measure(() -> repeat(INITIATE_DEFAULTS_CALLS, tableLayoutBuilder::initiateDefaults)) / INITIATE_DEFAULTS_CALLS);
+
+        assertWithinBudgets();
+    }
+
+    @Test
+    void tableRenderingStaysWithinBudget() {
+        measureRows("table", rows -> {
+            Map<String, Object> attributes = tableAttributes(rows);
+            return () -> render("framework/fragments/table", attributes);
+        });
+        measureRows("compiled-table", rows -> {
+            Map<String, Object> attributes = tableAttributes(rows);
+            return () -> render("framework/fragments/compiled-table", attributes);
+        });
+
+        assertWithinBudgets();
+    }
+
+    @Test
+    void exportStaysWithinBudget() {
+        measureRows("export", rows -> {
+            ExportDataSource source = ExportDataSource.of(exportRows(rows));
+            return () -> {
+                try (ExcelExport export = excelExportEngine.export(source, "budget.xlsx")) {
+                    assertThat(export.rowCount()).isEqualTo(rows);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+        });
+
+        assertWithinBudgets();
+    }
+
+    // The operation of a size is created before measuring, the rows themselves are not counted
+    private void measureRows(String scenario, IntFunction<Runnable> operation) {
+        double small = measure(operation.apply(SMALL));
+        double large = measure(operation.apply(LARGE));
+        measurements.put(scenario + ".bytes-per-row", (large - small) / (LARGE - SMALL));
+        measurements.put(scenario + ".bytes-of-" + SMALL + "-rows", small);
+    }
+
+    // Median of the bytes allocated by all threads while the operation runs
+    private static double measure(Runnable operation) {
+        repeat(WARMUP, operation);
+        double[] bytes = new double[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            long allocated = allocatedBytes();
+            operation.run();
+            bytes[run] = allocatedBytes() - allocated;
+        }
+        Arrays.sort(bytes);
+        return bytes[RUNS / 2];
+    }
+
+    private static long allocatedBytes() {
+        long total = 0;
+        for (long allocated : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    private static void repeat(int times, Runnable operation) {
+        for (int i = 0; i < times; i++) {
+            operation.run();
+        }
+    }
+
+    private void assertWithinBudgets() {
+        List<String> over = new ArrayList<>();
+        measurements.forEach((name, measured) -> {
+            String budget = BUDGETS.getProperty(name);
+            assertThat(budget).as("Budget of " + name).isNotNull();
+            double limit = Double.parseDouble(budget.trim()) * TOLERANCE;
+            if (measured > limit) {
+                over.add(String.format("%s=%.0f, budget %s", name, measured, budget.trim()));
+            }
+        });
+        assertThat(over).as("Measurements over %.0f%% of their budget, all measured: %s", TOLERANCE * 100, measurements)
+                .isEmpty();
+    }
+
+    private static String render(String template, Map<String, Object> attributes) {
+        Context context = new Context();
+        context.setVariables(attributes);
+        return templateEngine.process(template, Set.of("common-table"), context);
+    }
+
+    // The table attributes as initiated by the TableLayoutBuilder, with a link column and a path column
+    private static Map<String, Object> tableAttributes(int rows) {
+        List<Map<String, Object>> tableList = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", i);
+            row.put("name", "Student " + i);
+            row.put("email", "student" + i + "@example.org");
+            row.put("credits", i % 200);
+            tableList.add(row);
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("commonUtils", COMMON_UTILS);
+        attributes.put("headerNames", List.of("Id", "Name", "Email", "Credits", "View"));
+        attributes.put("attributeNames", List.of("id", "name", "email", "credits"));
+        attributes.put("tableList", tableList);
+        attributes.put("paths", List.of("/students"));
+        attributes.put("pathVariableName", "id");
+        attributes.put("tableListAttribute", "id");
+        attributes.put("nonSortable", Collections.emptyList());
+        attributes.put("columnTextCenterList", List.of("credits"));
+        attributes.put("columnLinkEnable", true);
+        attributes.put("headerColumnName", "name");
+        attributes.put("pathColumnName", "/students");
+        attributes.put("columnParamVariable", "id");
+        attributes.put("headerColumnTextCenterList", Collections.emptyList());
+        attributes.put("absolutePathLinks", Collections.emptyList());
+        attributes.put("absolutePathName", "");
+        attributes.put("rowHyperlinkMap", Collections.emptyMap());
+        attributes.put("rowIdAttribute", "id");
+        attributes.put("liveTablePath", "");
+        attributes.put("selectionPath", "");
+        attributes.put("selectionFilter", "");
+        attributes.put("tableSelection", null);
+        attributes.put("partialRendering", true);
+        attributes.put("rowHighlighter", null);
+        attributes.put("rowHighlightLegend", Collections.emptyMap());
+        return attributes;
+    }
+
+    private static List<Map<String, String>> exportRows(int rows) {
+        List<Map<String, String>> tableData = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, String> row = new LinkedHashMap<>();
+            row.put("Id", String.valueOf(i));
+            row.put("Name", "Student " + i);
+            row.put("Email", "student" + i + "@example.org");
+            row.put("Credits", String.valueOf(i % 200));
+            tableData.add(row);
+        }
+        return tableData;
+    }
+
+}
@@ -0,0 +1,248 @@
+package edu.miu.common.ui.export;
+
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExportResultCacheTest {
+
+    private static final int KILOBYTE = 1024;
+
+    @TempDir
+    Path directory;
+
+    private ExportResultCache cache;
+
+    private final AtomicInteger generated = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() throws IOException {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    void sendsTheCachedFileInsteadOfGeneratingItAgain() throws Exception {
+        cache = cache(true, 1);
+
+        try (ExportResultCache.Lease first = cache.get("a", generator('a', 10 * KILOBYTE));
+             ExportResultCache.Lease second = cache.get("a", generator('b', 10 * KILOBYTE))) {
+            assertThat(generated).hasValue(1);
+            assertThat(second.key()).isEqualTo("a");
+            assertThat(second.filename()).isEqualTo("a.xlsx");
+            assertThat(second.contentType()).isEqualTo(ExcelExport.XLSX_CONTENT_TYPE);
+            assertThat(second.size()).isEqualTo(10 * KILOBYTE);
+            assertThat(content(second)).isEqualTo(content(first)).matches("a+");
+        }
+        assertThat(cache.getEntryCount()).isEqualTo(1);
+        assertThat(cache.getSizeBytes()).isEqualTo(10 * KILOBYTE);
+        assertThat(cachedFiles()).hasSize(1);
+    }
+
+    @Test
+    void evictedExportStaysOnDiskUntilItsLeaseIsClosed() throws Exception {
+        cache = cache(true, 1);
+
+        ExportResultCache.Lease sending = cache.get("a", generator('a', 600 * KILOBYTE));
+        try (ExportResultCache.Lease evicting = cache.get("b", generator('b', 600 * KILOBYTE))) {
+            assertThat(cache.getEntryCount()).isEqualTo(1);
+            assertThat(cache.getSizeBytes()).isEqualTo(600 * KILOBYTE);
+            assertThat(cachedFiles()).hasSize(2);
+            assertThat(content(sending)).hasSize(600 * KILOBYTE).matches("a+");
+
+            sending.close();
+
+            assertThat(cachedFiles()).hasSize(1);
+            assertThat(content(evicting)).matches("b+");
+        }
+        // The export that is still cached is kept once its lease is closed
+        assertThat(cachedFiles()).hasSize(1);
+    }
+
+    @Test
+    void evictedExportStaysUntilItsLastLeaseIsClosed() throws Exception {
+        cache = cache(true, 1);
+        ExportResultCache.Lease first = cache.get("a", generator('a', 600 * KILOBYTE));
+        ExportResultCache.Lease second = cache.get("a", generator('a', 600 * KILOBYTE));
+
+        cache.get("b", generator('b', 600 * KILOBYTE)).close();
+        first.close();
+        // Closing a lease again must not release the lease of another request
+        first.close();
+
+        assertThat(cachedFiles()).hasSize(2);
+        assertThat(content(second)).matches("a+");
+        second.close();
+        assertThat(cachedFiles()).hasSize(1);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedExportsFirst() throws Exception {
+        cache = cache(true, 1);
+        cache.get("a", generator('a', 400 * KILOBYTE)).close();
+        cache.get("b", generator('b', 400 * KILOBYTE)).close();
+        cache.get("a", generator('a', 400 * KILOBYTE)).close();
+
+        cache.get("c", generator('c', 400 * KILOBYTE)).close();
+
+        assertThat(generated).hasValue(3);
+        assertThat(cache.getEntryCount()).isEqualTo(2);
+        assertThat(cachedFiles()).hasSize(2);
+        cache.get("a", generator('a', 400 * KILOBYTE)).close();
+        assertThat(generated).hasValue(3);
+        cache.get("b", generator('b', 400 * KILOBYTE)).close();
+        assertThat(generated).hasValue(4);
+    }
+
+    @Test
+    void exportLargerThanTheCacheIsSentOnceAndDeleted() throws Exception {
+        cache = cache(true, 1);
+
+        try (ExportResultCache.Lease lease = cache.get("large", generator('l', 2 * 1024 * KILOBYTE))) {
+            assertThat(cache.getEntryCount()).isZero();
+            assertThat(cache.getSizeBytes()).isZero();
+            assertThat(content(lease)).hasSize(2 * 1024 * KILOBYTE);
+        }
+        assertThat(cachedFiles()).isEmpty();
+    }
+
+    @Test
+    void disabledCacheHandsOutTheGeneratedExport() throws Exception {
+        cache = cache(false, 1);
+
+        ExportResultCache.Lease first = cache.get("a", generator('a', KILOBYTE));
+        ExportResultCache.Lease second = cache.get("a", generator('a', KILOBYTE));
+
+        assertThat(generated).hasValue(2);
+        assertThat(cache.getEntryCount()).isZero();
+        assertThat(generatedFiles()).hasSize(2);
+        assertThat(content(first)).hasSize(KILOBYTE);
+        first.close();
+        first.close();
+        assertThat(generatedFiles()).hasSize(1);
+        second.close();
+        assertThat(generatedFiles()).isEmpty();
+    }
+
+    @Test
+    void concurrentRequestsWaitForTheSameGeneration() throws Exception {
+        cache = cache(true, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<ExcelExport> slow = () -> {
+            started.countDown();
+            assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            return generator('a', KILOBYTE).call();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ExportResultCache.Lease> first = executor.submit(() -> cache.get("a", slow));
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<ExportResultCache.Lease> second = executor.submit(() -> cache.get("a", generator('b', KILOBYTE)));
+            release.countDown();
+
+            try (ExportResultCache.Lease firstLease = first.get(10, TimeUnit.SECONDS);
+                 ExportResultCache.Lease secondLease = second.get(10, TimeUnit.SECONDS)) {
+                assertThat(generated).hasValue(1);
+                assertThat(content(secondLease)).isEqualTo(content(firstLease));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedGenerationIsNotCached() throws Exception {
+        cache = cache(true, 1);
+
+        assertThatThrownBy(() -> cache.get("a", () -> {
+            throw new IOException("Disk full");
+        })).isInstanceOf(IOException.class).hasMessage("Disk full");
+
+        cache.get("a", generator('a', KILOBYTE)).close();
+        assertThat(generated).hasValue(1);
+        assertThat(cache.getEntryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keyChangesWithEverythingThatEndsUpInTheFile() throws IOException {
+        cache = cache(true, 1);
+        ExportDataSource source = source("ab", "c");
+
+        String key = cache.keyOf(source, "students.xlsx");
+
+        assertThat(cache.keyOf(source("ab", "c"), "students.xlsx"))
+                .isEqualTo(key);
+        assertThat(cache.keyOf(source, "students-2.xlsx")).isNotEqualTo(key);
+        assertThat(cache.keyOf(source, "students.xlsx", ExportLayout.ZIP)).isNotEqualTo(key);
+        assertThat(cache.keyOf(source("a", "bc"), "students.xlsx"))
+                .isNotEqualTo(key);
+    }
+
+    private static ExportDataSource source(String name, String email) {
+        Map<String, String> row = new LinkedHashMap<>();
+        row.put("Name", name);
+        row.put("Email", email);
+        return ExportDataSource.of(List.of(row));
+    }
+
+    private ExportResultCache cache(boolean enabled, long maxSizeMegabytes) throws IOException {
+        CommonUIConfiguration commonUIConfiguration = new CommonUIConfiguration();
+        commonUIConfiguration.getExportCache().setEnabled(enabled);
+        commonUIConfiguration.getExportCache().setMaxSizeMegabytes(maxSizeMegabytes);
+        commonUIConfiguration.getExportCache().setDirectory(directory.resolve("cache").toString());
+        return new ExportResultCache(commonUIConfiguration);
+    }
+
+    // Export of the given size filled with one character, as the ExcelExportEngine leaves it in a temporary file
+    private Callable<ExcelExport> generator(char fill, int bytes) {
+        return () -> {
+            generated.incrementAndGet();
+            Path file = Files.createTempFile(Files.createDirectories(directory.resolve("generated")), "export-", ".xlsx");
+            Files.writeString(file, String.valueOf(fill).repeat(bytes));
+            return new ExcelExport(file, fill + ".xlsx", ExcelExport.XLSX_CONTENT_TYPE, 1, 1);
+        };
+    }
+
+    private static String content(ExportResultCache.Lease lease) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        lease.transferTo(output);
+        return output.toString();
+    }
+
+    private List<Path> cachedFiles() throws IOException {
+        return files(directory.resolve("cache"));
+    }
+
+    private List<Path> generatedFiles() throws IOException {
+        return files(directory.resolve("generated"));
+    }
+
+    private static List<Path> files(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+}
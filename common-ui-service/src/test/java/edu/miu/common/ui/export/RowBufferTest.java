@@ -0,0 +1,179 @@
+package edu.miu.common.ui.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RowBufferTest {
+
+    private static final List<String> HEADERS = List.of("Id", "Name", "Email");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsSmallBuffersInMemory() {
+        try (RowBuffer rows = new RowBuffer(HEADERS, 1024 * 1024, directory)) {
+            rows.append(List.of("1", "Zo\u00eb \u65e5\u672c", ""));
+            rows.append(Arrays.asList("2", null, "bob@example.org"));
+
+            assertThat(rows.isSpilled()).isFalse();
+            assertThat(rows.getRowCount()).isEqualTo(2);
+            assertThat(rows.getRow(0)).containsExactly("1", "Zo\u00eb \u65e5\u672c", "");
+            assertThat(rows.getRow(1)).containsExactly("2", null, "bob@example.org");
+            assertThat(spilledFiles()).isEmpty();
+        }
+    }
+
+    @Test
+    void missingValuesAreNullAndExtraValuesIgnored() {
+        try (RowBuffer rows = new RowBuffer(HEADERS, 1024 * 1024, directory)) {
+            rows.append(List.of("1"));
+            rows.append(List.of("2", "Bob", "bob@example.org", "extra"));
+
+            assertThat(rows.getRow(0)).containsExactly("1", null, null);
+            assertThat(rows.getRow(1)).containsExactly("2", "Bob", "bob@example.org");
+        }
+    }
+
+    @Test
+    void readsRowsAsMapsKeyedByTheHeaders() {
+        try (RowBuffer rows = new RowBuffer(List.of("Id", "Name", "Id"), 1024 * 1024, directory)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("Name", "Alice");
+            row.put("Id", 7);
+            rows.append(row);
+
+            Map<String, String> read = rows.get(0);
+
+            assertThat(rows).hasSize(1);
+            assertThat(read.get("Id")).isEqualTo("7");
+            assertThat(read.get("Name")).isEqualTo("Alice");
+            assertThat(read.get("Unknown")).isNull();
+            assertThat(read).containsExactly(Map.entry("Id", "7"), Map.entry("Name", "Alice"));
+        }
+    }
+
+    @Test
+    void spillsToDiskOnceOverTheThresholdAndReadsTheMappedFile() throws IOException {
+        try (RowBuffer rows = new RowBuffer(HEADERS, 4 * 1024, directory)) {
+            IntStream.range(0, 10_000).forEach(i -> rows.append(row(i)));
+
+            assertThat(rows.isSpilled()).isTrue();
+            assertThat(spilledFiles()).hasSize(1);
+            // Rows written before the spill, through flushes of the write buffer and left in it until the first read
+            for (int i : new int[]{0, 1, 100, 5_000, 9_999}) {
+                assertThat(rows.getRow(i)).isEqualTo(row(i));
+            }
+            assertThat(Files.size(spilledFiles().get(0))).isEqualTo(rows.getSizeBytes());
+        }
+        assertThat(spilledFiles()).isEmpty();
+    }
+
+    @Test
+    void spilledRowLargerThanTheWriteBufferIsWrittenAsAWhole() {
+        String note = "n".repeat(200 * 1024);
+        try (RowBuffer rows = new RowBuffer(HEADERS, 1024, directory)) {
+            rows.append(row(0));
+            rows.append(List.of("1", note, "\u00e9"));
+            rows.append(row(2));
+
+            assertThat(rows.isSpilled()).isTrue();
+            assertThat(rows.getRow(0)).isEqualTo(row(0));
+            assertThat(rows.getRow(1)).containsExactly("1", note, "\u00e9");
+            assertThat(rows.getRow(2)).isEqualTo(row(2));
+        }
+    }
+
+    @Test
+    void readsSpilledRowsConcurrently() {
+        try (RowBuffer rows = new RowBuffer(HEADERS, 4 * 1024, directory)) {
+            IntStream.range(0, 5_000).forEach(i -> rows.append(row(i)));
+
+            List<Integer> wrong = IntStream.range(0, 5_000).parallel()
+                    .filter(i -> !rows.getRow(i).equals(row(i)))
+                    .boxed()
+                    .toList();
+
+            assertThat(wrong).isEmpty();
+        }
+    }
+
+    @Test
+    void iteratesTheRowsInOrder() {
+        try (RowBuffer rows = new RowBuffer(HEADERS, 1024, directory)) {
+            IntStream.range(0, 500).forEach(i -> rows.append(row(i)));
+
+            List<String> ids = new ArrayList<>();
+            for (Map<String, String> row : rows) {
+                ids.add(row.get("Id"));
+            }
+
+            assertThat(ids).isEqualTo(IntStream.range(0, 500).mapToObj(String::valueOf).toList());
+        }
+    }
+
+    @Test
+    void firstReadSealsTheBuffer() {
+        try (RowBuffer rows = new RowBuffer(HEADERS, 1024 * 1024, directory)) {
+            rows.append(row(0));
+            rows.getRow(0);
+
+            assertThatThrownBy(() -> rows.append(row(1))).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> rows.getRow(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+    }
+
+    @Test
+    void closeDeletesTheSpilledFileAndRejectsReads() {
+        RowBuffer rows = new RowBuffer(HEADERS, 1024, directory);
+        IntStream.range(0, 100).forEach(i -> rows.append(row(i)));
+        assertThat(spilledFiles()).hasSize(1);
+
+        rows.close();
+        rows.close();
+
+        assertThat(spilledFiles()).isEmpty();
+        assertThat(rows.toString()).contains("closed=true");
+        assertThatThrownBy(() -> rows.getRow(0)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> rows.append(row(100))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void closeAfterReadingDeletesTheMappedFile() {
+        RowBuffer rows = new RowBuffer(HEADERS, 1024, directory);
+        IntStream.range(0, 100).forEach(i -> rows.append(row(i)));
+        assertThat(rows.getRow(99)).isEqualTo(row(99));
+
+        rows.close();
+
+        assertThat(spilledFiles()).isEmpty();
+        assertThatThrownBy(() -> rows.getRow(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<String> row(int i) {
+        return List.of(String.valueOf(i), "Student " + i, "student" + i + "@example.org");
+    }
+
+    private List<Path> spilledFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package edu.miu.common.ui.importing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRowReaderTest {
+
+    // The size of the buffer of the CsvRowReader
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Test
+    void readsRowsEndingWithAnyLineBreak() throws IOException {
+        assertThat(read("a,b\r\nc,d\ne,f\rg,h")).containsExactly(
+                List.of("a", "b"), List.of("c", "d"), List.of("e", "f"), List.of("g", "h"));
+        assertThat(read("a,b\r\n")).containsExactly(List.of("a", "b"));
+    }
+
+    @Test
+    void keepsEmptyCells() throws IOException {
+        assertThat(read(",a,,\n,\n")).containsExactly(List.of("", "a", "", ""), List.of("", ""));
+    }
+
+    @Test
+    void readsQuotedCells() throws IOException {
+        String csv = "\"Smith, Alice\",\"She said \"\"hi\"\"\",\"two\r\nlines\",\"\"\n"
+                + "\"\"\"\",plain \"quote\",\"a\"\"\"\n";
+
+        assertThat(read(csv)).containsExactly(
+                List.of("Smith, Alice", "She said \"hi\"", "two\r\nlines", ""),
+                List.of("\"", "plain \"quote\"", "a\""));
+    }
+
+    @Test
+    void readsUnterminatedLastRow() throws IOException {
+        assertThat(read("a,b\nc,")).containsExactly(List.of("a", "b"), List.of("c", ""));
+        assertThat(read("a\n\"open")).containsExactly(List.of("a"), List.of("open"));
+        assertThat(read("")).isEmpty();
+    }
+
+    @Test
+    void usesTheConfiguredDelimiter() throws IOException {
+        assertThat(read("a;\"b;c\";d,e\n", ';')).containsExactly(List.of("a", "b;c", "d,e"));
+        assertThat(read("a\tb\n", '\t')).containsExactly(List.of("a", "b"));
+    }
+
+    @Test
+    void skipsTheByteOrderMarkOfTheFirstCellOnly() throws IOException {
+        assertThat(read("\uFEFFName,Email\n\uFEFFAlice,a@example.org\n")).containsExactly(
+                List.of("Name", "Email"), List.of("\uFEFFAlice", "a@example.org"));
+        assertThat(read("\uFEFF\"Name\",Email\n")).containsExactly(List.of("Name", "Email"));
+    }
+
+    @Test
+    void crLfSplitAcrossTheBufferBoundaryEndsOneRow() throws IOException {
+        // The CR is the last character of the first buffer and the LF the first one of the next
+        String first = "x".repeat(BUFFER_SIZE - 1);
+        String csv = first + "\r\nsecond,row\r\n";
+
+        assertThat(read(csv)).containsExactly(List.of(first), List.of("second", "row"));
+    }
+
+    @Test
+    void quotesSplitAcrossTheBufferBoundary() throws IOException {
+        // The doubled quote and the closing quote each start in the first buffer and end in the next
+        String escaped = "\"" + "y".repeat(BUFFER_SIZE - 2) + "\"\"z\"\n";
+        String closing = "\"" + "y".repeat(BUFFER_SIZE - 2) + "\",z\n";
+
+        assertThat(read(escaped)).containsExactly(List.of("y".repeat(BUFFER_SIZE - 2) + "\"z"));
+        assertThat(read(closing)).containsExactly(List.of("y".repeat(BUFFER_SIZE - 2), "z"));
+    }
+
+    @Test
+    void readsTheSameRowsWhateverTheReaderReturnsAtOnce() throws IOException {
+        String csv = "\uFEFFId,Name,Note\r\n1,\"O\"\"Brien, Pat\",\"line\r\nbreak\"\r\n2,Bob,\r\n\r3,\"\",x";
+
+        List<List<String>> rows = read(csv);
+
+        assertThat(rows).hasSize(5);
+        assertThat(readOneCharacterAtATime(csv, ',')).isEqualTo(rows);
+    }
+
+    private static List<List<String>> read(String csv) throws IOException {
+        return read(csv, ',');
+    }
+
+    private static List<List<String>> read(String csv, char delimiter) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        new CsvRowReader(delimiter).read(new StringReader(csv), cells -> rows.add(List.copyOf(cells)));
+        return rows;
+    }
+
+    // Every character ends up at a buffer boundary
+    private static List<List<String>> readOneCharacterAtATime(String csv, char delimiter) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        Reader reader = new StringReader(csv) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+        new CsvRowReader(delimiter).read(reader, cells -> rows.add(List.copyOf(cells)));
+        return rows;
+    }
+
+}
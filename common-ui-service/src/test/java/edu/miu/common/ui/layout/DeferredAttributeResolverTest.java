@@ -0,0 +1,91 @@
+package edu.miu.common.ui.layout;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class DeferredAttributeResolverTest {
+
+    private final DeferredAttributeResolver resolver = new DeferredAttributeResolver();
+
+    @AfterEach
+    void shutdown() {
+        resolver.shutdown();
+    }
+
+    @Test
+    void resolvesSuppliersAndTransformsTheirValues() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("count", DeferredAttribute.of(() -> 41, 0).<Integer>map(count -> count + 1));
+
+        resolver.resolve(attributes, Duration.ofSeconds(5));
+
+        assertThat(attributes).containsEntry("count", 42);
+    }
+
+    @Test
+    void slowSupplierUsesTheFallbackAndNamesTheDeadline(CapturedOutput output) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("slow", DeferredAttribute.of(() -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "late";
+        }, "fallback"));
+
+        resolver.resolve(attributes, Duration.ofMillis(50));
+
+        assertThat(attributes).containsEntry("slow", "fallback");
+        assertThat(output).contains("not ready before the deadline of 50 ms");
+    }
+
+    @Test
+    void cancelledFutureIsNotReportedAsATransformationFailure(CapturedOutput output) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        future.cancel(true);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("cancelled", DeferredAttribute.of(future, "fallback"));
+
+        resolver.resolve(attributes, Duration.ofMillis(200));
+
+        assertThat(attributes).containsEntry("cancelled", "fallback");
+        assertThat(output).contains("was cancelled before the deadline of 200 ms").doesNotContain("could not be transformed");
+    }
+
+    @Test
+    void futureTimingOutOnItsOwnIsReportedAsATimeout(CapturedOutput output) {
+        CompletableFuture<String> future = new CompletableFuture<String>().orTimeout(10, TimeUnit.MILLISECONDS);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("timedOut", DeferredAttribute.of(future, "fallback"));
+
+        resolver.resolve(attributes, Duration.ofSeconds(5));
+
+        assertThat(attributes).containsEntry("timedOut", "fallback");
+        assertThat(output).contains("timed out on its own within the deadline of 5000 ms");
+    }
+
+    @Test
+    void failingTransformationUsesTheFallback(CapturedOutput output) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("broken", DeferredAttribute.of(() -> "text", "fallback").<Integer>map(value -> value + 1));
+
+        resolver.resolve(attributes, Duration.ofSeconds(5));
+
+        assertThat(attributes).containsEntry("broken", "fallback");
+        assertThat(output).contains("could not be transformed");
+    }
+
+}
@@ -0,0 +1,113 @@
+package edu.miu.common.ui.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingListTest {
+
+    @Test
+    void keepsDocumentsAddedInAnyOrderOnce() {
+        PostingList postingList = new PostingList("alice");
+
+        for (int document : new int[]{5, 1, 9, 1, 3, 9, 0}) {
+            postingList.add(document);
+        }
+
+        assertThat(postingList.getToken()).isEqualTo("alice");
+        assertThat(documents(postingList)).isEqualTo(bits(0, 1, 3, 5, 9));
+    }
+
+    @Test
+    void removesDocuments() {
+        PostingList postingList = new PostingList("bob");
+        postingList.add(2);
+        postingList.add(4);
+        postingList.add(6);
+
+        postingList.remove(4);
+        postingList.remove(7);
+
+        assertThat(documents(postingList)).isEqualTo(bits(2, 6));
+        postingList.remove(2);
+        postingList.remove(6);
+        assertThat(postingList.isEmpty()).isTrue();
+    }
+
+    @Test
+    void frequentTokenSwitchesToBitSetWithoutLosingDocuments() {
+        PostingList postingList = new PostingList("student");
+        int[] expected = IntStream.range(0, 1000).filter(document -> document % 3 != 0).toArray();
+
+        // Added out of order to go through the insertion before and after the switch
+        for (int i = expected.length - 1; i >= 0; i--) {
+            postingList.add(expected[i]);
+        }
+        postingList.add(expected[0]);
+
+        assertThat(documents(postingList)).isEqualTo(bits(expected));
+        postingList.remove(1);
+        postingList.remove(998);
+        postingList.add(3);
+        assertThat(documents(postingList).get(1)).isFalse();
+        assertThat(documents(postingList).get(998)).isFalse();
+        assertThat(documents(postingList).get(3)).isTrue();
+        assertThat(documents(postingList).cardinality()).isEqualTo(expected.length - 1);
+    }
+
+    @Test
+    void sparseTokenKeepsItsDocuments() {
+        PostingList postingList = new PostingList("rare");
+        int[] expected = IntStream.range(0, 300).map(i -> i * 1000).toArray();
+
+        for (int document : expected) {
+            postingList.add(document);
+        }
+        postingList.remove(5000);
+
+        BitSet remaining = bits(expected);
+        remaining.clear(5000);
+        assertThat(documents(postingList)).isEqualTo(remaining);
+    }
+
+    @Test
+    void bitSetBecomesEmptyOnceEveryDocumentIsRemoved() {
+        PostingList postingList = new PostingList("all");
+        IntStream.range(0, 256).forEach(postingList::add);
+
+        IntStream.range(0, 256).forEach(postingList::remove);
+
+        assertThat(postingList.isEmpty()).isTrue();
+        assertThat(documents(postingList).isEmpty()).isTrue();
+    }
+
+    @Test
+    void addsToTheDocumentsAlreadyInTheTarget() {
+        PostingList postingList = new PostingList("carol");
+        postingList.add(1);
+        postingList.add(4);
+        BitSet target = bits(2, 4);
+
+        postingList.addTo(target);
+
+        assertThat(target).isEqualTo(bits(1, 2, 4));
+    }
+
+    private static BitSet documents(PostingList postingList) {
+        BitSet documents = new BitSet();
+        postingList.addTo(documents);
+        return documents;
+    }
+
+    private static BitSet bits(int... documents) {
+        BitSet bits = new BitSet();
+        for (int document : documents) {
+            bits.set(document);
+        }
+        return bits;
+    }
+
+}
@@ -0,0 +1,114 @@
+package edu.miu.common.ui.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableSearchIndexTest {
+
+    @Test
+    void matchesRowsContainingEveryTermAsAPrefix() {
+        TableSearchIndex index = new TableSearchIndex();
+        index.put("1", List.of("Alice Smith", "alice@example.org"));
+        index.put("2", List.of("Bob Smithers", "bob@example.org"));
+        index.put("3", List.of("Carol Jones", "carol@example.com"));
+
+        assertThat(index.search("smith", 10).rowIds()).containsExactly("1", "2");
+        assertThat(index.search("SMITH bo", 10).rowIds()).containsExactly("2");
+        assertThat(index.search("example com", 10).rowIds()).containsExactly("3");
+        assertThat(index.search("smith carol", 10).total()).isZero();
+        assertThat(index.search("mith", 10).total()).isZero();
+    }
+
+    @Test
+    void ignoresCaseAccentsAndPunctuation() {
+        TableSearchIndex index = new TableSearchIndex();
+        index.put("1", List.of("\u00c9mile O'Brien"));
+
+        assertThat(index.search("emile o brien", 10).rowIds()).containsExactly("1");
+        assertThat(index.search("\u00e9MILE", 10).rowIds()).containsExactly("1");
+    }
+
+    @Test
+    void emptyQueryMatchesNothing() {
+        TableSearchIndex index = new TableSearchIndex();
+        index.put("1", List.of("Alice"));
+
+        assertThat(index.search("", 10)).isEqualTo(new TableSearchIndex.SearchHits(0, List.of()));
+        assertThat(index.search(" - ", 10)).isEqualTo(new TableSearchIndex.SearchHits(0, List.of()));
+        assertThat(index.search(null, 10)).isEqualTo(new TableSearchIndex.SearchHits(0, List.of()));
+    }
+
+    @Test
+    void updatedRowIsFoundByItsNewValuesOnly() {
+        TableSearchIndex index = new TableSearchIndex();
+        index.put("1", List.of("Alice", "Pending"));
+        index.put("2", List.of("Bob", "Pending"));
+
+        index.put("1", List.of("Alice", "Approved"));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("pending", 10).rowIds()).containsExactly("2");
+        assertThat(index.search("approved", 10).rowIds()).containsExactly("1");
+    }
+
+    @Test
+    void removedRowIsNotFoundAndItsDocumentIsReused() {
+        TableSearchIndex index = new TableSearchIndex();
+        index.put("1", List.of("Alice"));
+        index.put("2", List.of("Bob"));
+
+        assertThat(index.remove("1")).isTrue();
+        assertThat(index.remove("1")).isFalse();
+        assertThat(index.search("alice", 10).total()).isZero();
+
+        index.put("3", List.of("Alicia"));
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("ali", 10).rowIds()).containsExactly("3");
+        assertThat(index.search("bob", 10).rowIds()).containsExactly("2");
+    }
+
+    @Test
+    void returnsAtMostLimitRowsWithTheTotal() {
+        TableSearchIndex index = new TableSearchIndex();
+        IntStream.range(0, 2000).forEach(i -> index.put("row-" + i, List.of("Student " + i, i % 2 == 0 ? "even" : "odd")));
+
+        TableSearchIndex.SearchHits students = index.search("student", 5);
+        TableSearchIndex.SearchHits even = index.search("stu even", 3);
+
+        assertThat(students.total()).isEqualTo(2000);
+        assertThat(students.rowIds()).containsExactly("row-0", "row-1", "row-2", "row-3", "row-4");
+        assertThat(even.total()).isEqualTo(1000);
+        assertThat(even.rowIds()).containsExactly("row-0", "row-2", "row-4");
+        assertThat(index.search("student 1999", 10).rowIds()).containsExactly("row-1999");
+    }
+
+    @Test
+    void frequentTokensStayCorrectAfterRemovals() {
+        TableSearchIndex index = new TableSearchIndex();
+        IntStream.range(0, 1000).forEach(i -> index.put(String.valueOf(i), List.of("Enrolled")));
+
+        IntStream.range(0, 1000).filter(i -> i % 10 != 0).forEach(i -> index.remove(String.valueOf(i)));
+
+        TableSearchIndex.SearchHits hits = index.search("enrolled", 1000);
+        assertThat(hits.total()).isEqualTo(100);
+        assertThat(hits.rowIds()).allMatch(rowId -> Integer.parseInt(rowId) % 10 == 0);
+        assertThat(index.search("unknown enrolled", 1000).total()).isZero();
+    }
+
+    @Test
+    void clearRemovesEveryRow() {
+        TableSearchIndex index = new TableSearchIndex();
+        index.put("1", List.of("Alice"));
+
+        index.clear();
+        index.put("2", List.of("Alice"));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("alice", 10).rowIds()).containsExactly("2");
+    }
+
+}
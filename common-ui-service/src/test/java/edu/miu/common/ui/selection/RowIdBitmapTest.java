@@ -0,0 +1,89 @@
+package edu.miu.common.ui.selection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RowIdBitmapTest {
+
+    // Ids of a sparse chunk are kept in an array of at most 4096 entries, the next one turns it into a bit set
+    private static final int MAX_ARRAY_SIZE = 4096;
+
+    private static final long CHUNK = 1 << 16;
+
+    private final RowIdBitmap bitmap = new RowIdBitmap();
+
+    @Test
+    void addsAndRemovesIdsAcrossChunks() {
+        assertThat(bitmap.add(7)).isTrue();
+        assertThat(bitmap.add(7)).isFalse();
+        assertThat(bitmap.add(CHUNK + 3)).isTrue();
+        assertThat(bitmap.add(5 * CHUNK)).isTrue();
+
+        assertThat(bitmap.contains(7)).isTrue();
+        assertThat(bitmap.contains(CHUNK + 7)).isFalse();
+        assertThat(bitmap.contains(-1)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(3);
+        assertThat(bitmap.stream()).containsExactly(7L, CHUNK + 3, 5 * CHUNK);
+
+        assertThat(bitmap.remove(CHUNK + 3)).isTrue();
+        assertThat(bitmap.remove(CHUNK + 3)).isFalse();
+        assertThat(bitmap.remove(9 * CHUNK)).isFalse();
+        assertThat(bitmap.stream()).containsExactly(7L, 5 * CHUNK);
+    }
+
+    @Test
+    void keepsEveryIdWhenTheArrayIsPromotedToABitSet() {
+        // Every other id, so the array fills up without the ids being contiguous
+        LongStream.range(0, MAX_ARRAY_SIZE).forEach(i -> assertThat(bitmap.add(i * 2)).isTrue());
+        assertThat(bitmap.cardinality()).isEqualTo(MAX_ARRAY_SIZE);
+
+        assertThat(bitmap.add(1)).isTrue();
+        assertThat(bitmap.add(1)).isFalse();
+
+        assertThat(bitmap.cardinality()).isEqualTo(MAX_ARRAY_SIZE + 1);
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(3)).isFalse();
+        assertThat(bitmap.contains(2L * (MAX_ARRAY_SIZE - 1))).isTrue();
+        assertThat(bitmap.stream().limit(4)).containsExactly(0L, 1L, 2L, 4L);
+        assertThat(bitmap.stream().count()).isEqualTo(MAX_ARRAY_SIZE + 1);
+    }
+
+    @Test
+    void removesIdsAfterThePromotion() {
+        LongStream.rangeClosed(0, MAX_ARRAY_SIZE).forEach(bitmap::add);
+
+        assertThat(bitmap.remove(10)).isTrue();
+        assertThat(bitmap.remove(10)).isFalse();
+        assertThat(bitmap.contains(10)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(MAX_ARRAY_SIZE);
+
+        // A bit set emptied by removals drops its chunk like an emptied array
+        LongStream.rangeClosed(0, MAX_ARRAY_SIZE).forEach(bitmap::remove);
+        assertThat(bitmap.isEmpty()).isTrue();
+        assertThat(bitmap.cardinality()).isZero();
+        assertThat(bitmap.stream()).isEmpty();
+    }
+
+    @Test
+    void dropsChunksEmptiedByRemovals() {
+        bitmap.add(1);
+        bitmap.add(CHUNK + 1);
+
+        bitmap.remove(CHUNK + 1);
+        assertThat(bitmap.isEmpty()).isFalse();
+
+        bitmap.remove(1);
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsNegativeIds() {
+        assertThatThrownBy(() -> bitmap.add(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bitmap.remove(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,86 @@
+package edu.miu.common.ui.selection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableSelectionTest {
+
+    private final TableSelection selection = new TableSelection();
+
+    @Test
+    void selectsAndDeselectsRows() {
+        selection.select(3);
+        selection.select(1);
+        selection.select(2);
+        selection.deselect(2);
+
+        assertThat(selection.isSelected(1L)).isTrue();
+        assertThat(selection.isSelected(2L)).isFalse();
+        assertThat(selection.isSelected((Object) "3")).isTrue();
+        assertThat(selection.isSelected((Object) "not an id")).isFalse();
+        assertThat(selection.isSelected((Object) null)).isFalse();
+        assertThat(selection.selectedIds(filter -> LongStream.empty())).containsExactly(1L, 3L);
+        assertThat(selection.getState().getExplicitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void selectAllInvertsTheSelection() {
+        selection.select(9);
+        selection.selectAll("name=a");
+        selection.deselect(2);
+        selection.deselect(4);
+        selection.select(4);
+
+        assertThat(selection.isAllMatching()).isTrue();
+        assertThat(selection.isEmpty()).isFalse();
+        assertThat(selection.isSelected(2L)).isFalse();
+        assertThat(selection.isSelected(4L)).isTrue();
+        assertThat(selection.isSelected(100L)).isTrue();
+
+        AtomicReference<String> requestedFilter = new AtomicReference<>();
+        assertThat(selection.selectedIds(filter -> {
+            requestedFilter.set(filter);
+            return LongStream.rangeClosed(1, 5);
+        })).containsExactly(1L, 3L, 4L, 5L);
+        assertThat(requestedFilter).hasValue("name=a");
+    }
+
+    @Test
+    void clearLeavesTheInvertedMode() {
+        selection.selectAll("name=a");
+        selection.deselect(2);
+        selection.clear();
+
+        assertThat(selection.isAllMatching()).isFalse();
+        assertThat(selection.isEmpty()).isTrue();
+        assertThat(selection.isSelected(2L)).isFalse();
+        assertThat(selection.selectedIds(filter -> LongStream.rangeClosed(1, 5))).isEmpty();
+    }
+
+    @Test
+    void selectedIdsAreASnapshotOfTheSelection() {
+        selection.select(1);
+        selection.select(2);
+        LongStream selected = selection.selectedIds(filter -> LongStream.empty());
+        selection.select(3);
+        selection.deselect(1);
+
+        assertThat(selected).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void invertedSelectedIdsAreASnapshotOfTheExcludedRows() {
+        selection.selectAll(null);
+        selection.deselect(2);
+        LongStream selected = selection.selectedIds(filter -> LongStream.rangeClosed(1, 4));
+        selection.deselect(3);
+        selection.select(2);
+
+        assertThat(selected).containsExactly(1L, 3L, 4L);
+    }
+
+}
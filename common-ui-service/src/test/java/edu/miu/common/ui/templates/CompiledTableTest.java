@@ -0,0 +1,255 @@
+package edu.miu.common.ui.templates;
+
+import edu.miu.common.ui.config.CommonUIConfiguration;
+import edu.miu.common.ui.dialect.CommonUIDialect;
+import edu.miu.common.ui.highlight.HighlightOperator;
+import edu.miu.common.ui.highlight.RowHighlightCompiler;
+import edu.miu.common.ui.highlight.RowHighlightRule;
+import edu.miu.common.ui.highlight.RowHighlighter;
+import edu.miu.common.ui.layout.LayoutPlanCompiler;
+import edu.miu.common.ui.selection.TableSelection;
+import edu.miu.common.ui.service.contract.TableColor;
+import edu.miu.common.ui.utils.CommonUtils;
+import edu.miu.common.ui.utils.TestCommonUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.linkbuilder.StandardLinkBuilder;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/* Renders every table configuration with framework/fragments/table.html and with the CompiledTable, through the
+    cui:compiled-table processor, and compares both once the whitespace that is not part of the markup is removed.
+ */
+class CompiledTableTest {
+
+    private static final CommonUtils COMMON_UTILS = new TestCommonUtils();
+
+    private static SpringTemplateEngine templateEngine;
+
+    @BeforeAll
+    static void createTemplateEngine() {
+        CommonUIConfiguration commonUIConfiguration = new CommonUIConfiguration();
+        // table.html as written is the reference, not its minified form
+        commonUIConfiguration.getTemplates().setMinify(false);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(new MinifyingTemplateResolver(commonUIConfiguration));
+        templateEngine.setLinkBuilder(new ContextPathLinkBuilder());
+        templateEngine.addDialect(new CommonUIDialect(new LayoutPlanCompiler(), new CompiledTableCompiler()));
+    }
+
+    static Stream<TableCase> tables() {
+        RowHighlighter highlighter = new RowHighlightCompiler(COMMON_UTILS).compile(List.of(
+                RowHighlightRule.of("credits", HighlightOperator.LT, "10", TableColor.RED).withLegend("Few credits"),
+                RowHighlightRule.of("name", HighlightOperator.EQ, "Carol", "table-info").withLegend("Carol & co")));
+
+        TableSelection selection = new TableSelection();
+        selection.select(2);
+        TableSelection allMatching = new TableSelection();
+        allMatching.selectAll("name=a");
+        allMatching.deselect(3);
+
+        return Stream.of(
+                new TableCase("plain", Map.of()),
+                new TableCase("empty list", Map.of("tableList", List.of())),
+                new TableCase("sorting and centering", Map.of(
+                        "nonSortable", List.of("Credits"),
+                        "columnTextCenterList", List.of("credits", "name"),
+                        "headerColumnTextCenterList", List.of("Name"))),
+                new TableCase("links", Map.of(
+                        "columnLinkEnable", true,
+                        "headerColumnName", "name",
+                        "pathColumnName", "/students",
+                        "columnParamVariable", "id")),
+                new TableCase("links with hyperlink text", Map.of(
+                        "columnLinkEnable", true,
+                        "headerColumnName", "name",
+                        "pathColumnName", "/students",
+                        "columnParamVariable", "id",
+                        "rowHyperlinkMap", Map.of("name", "Open"))),
+                new TableCase("absolute paths", Map.of(
+                        "absolutePathName", "name",
+                        "absolutePathLinks", Map.of("Alice", "https://example.org/alice", "Carol", "/profiles/carol"))),
+                new TableCase("paths", Map.of(
+                        "headerNames", List.of("Id", "Name", "Credits", "View", "Edit", "None"),
+                        "paths", List.of("/students/view", "/students/edit", ""),
+                        "pathVariableName", "studentId",
+                        "tableListAttribute", "id")),
+                new TableCase("paths without variable", Map.of(
+                        "headerNames", List.of("Id", "Name", "Credits", "View"),
+                        "paths", List.of("/students"))),
+                new TableCase("selection", Map.of(
+                        "rowIdAttribute", "id",
+                        "selectionPath", "/selection",
+                        "selectionFilter", "name=a",
+                        "tableSelection", selection)),
+                new TableCase("selection of all matching rows", Map.of(
+                        "rowIdAttribute", "id",
+                        "selectionPath", "/selection",
+                        "tableSelection", allMatching)),
+                new TableCase("live table", Map.of(
+                        "rowIdAttribute", "id",
+                        "liveTablePath", "/live",
+                        "partialRendering", false)),
+                new TableCase("legend", Map.of(
+                        "rowHighlighter", highlighter,
+                        "rowHighlightLegend", highlighter.getLegend())),
+                new TableCase("legend of an empty list", Map.of(
+                        "tableList", List.of(),
+                        "rowHighlighter", highlighter,
+                        "rowHighlightLegend", highlighter.getLegend())),
+                new TableCase("html escaping", Map.of(
+                        "headerNames", List.of("<Id>", "Name & \"title\"", "'Credits'", "View"),
+                        "tableList", List.of(
+                                row(1, "<script>alert('x')</script>", 5),
+                                row(2, "Tom & \"Jerry\"", 120)),
+                        "columnLinkEnable", true,
+                        "headerColumnName", "name",
+                        "pathColumnName", "/students?sort=<name>",
+                        "columnParamVariable", "id",
+                        "paths", List.of("/students/\"view\""),
+                        "selectionPath", "/selection",
+                        "selectionFilter", "name=<a> & \"b\"")));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("tables")
+    void compiledTableRendersTheMarkupOfTableHtml(TableCase tableCase) {
+        String expected = render("framework/fragments/table", tableCase);
+        String actual = render("framework/fragments/compiled-table", tableCase);
+
+        assertThat(expected).contains("<table id=\"table\"");
+        assertThat(normalize(actual)).isEqualTo(normalize(expected));
+    }
+
+    private static String render(String template, TableCase tableCase) {
+        Context context = new Context();
+        context.setVariables(defaults());
+        context.setVariables(tableCase.variables());
+        return templateEngine.process(template, Set.of("common-table"), context);
+    }
+
+    // The table attributes as initiated by the TableLayoutBuilder
+    private static Map<String, Object> defaults() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("commonUtils", COMMON_UTILS);
+        attributes.put("headerNames", List.of("Id", "Name", "Credits"));
+        attributes.put("attributeNames", List.of("id", "name", "credits"));
+        attributes.put("tableList", List.of(row(1, "Alice", 5), row(2, "Bob", 120), row(3, "Carol", 60)));
+        attributes.put("paths", Collections.emptyList());
+        attributes.put("pathVariableName", "");
+        attributes.put("tableListAttribute", "");
+        attributes.put("nonSortable", Collections.emptyList());
+        attributes.put("columnTextCenterList", Collections.emptyList());
+        attributes.put("columnLinkEnable", false);
+        attributes.put("headerColumnName", "");
+        attributes.put("pathColumnName", "");
+        attributes.put("columnParamVariable", "");
+        attributes.put("headerColumnTextCenterList", Collections.emptyList());
+        attributes.put("absolutePathLinks", Collections.emptyList());
+        attributes.put("absolutePathName", "");
+        attributes.put("rowHyperlinkMap", Collections.emptyMap());
+        attributes.put("rowIdAttribute", "");
+        attributes.put("liveTablePath", "");
+        attributes.put("selectionPath", "");
+        attributes.put("selectionFilter", "");
+        attributes.put("tableSelection", null);
+        attributes.put("partialRendering", true);
+        attributes.put("rowHighlighter", null);
+        attributes.put("rowHighlightLegend", Collections.emptyMap());
+        return attributes;
+    }
+
+    private static Map<String, Object> row(int id, String name, int credits) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        row.put("credits", credits);
+        return row;
+    }
+
+    // Whitespace between two tags is removed and whitespace between the attributes of a tag reduced to a single
+    // space, as the CompiledTable writes them. Whitespace within the text and the attribute values is kept.
+    static String normalize(String table) {
+        StringBuilder normalized = new StringBuilder(table.length());
+        String trimmed = table.strip();
+        boolean inTag = false;
+        char quote = 0;
+        int i = 0;
+        while (i < trimmed.length()) {
+            char c = trimmed.charAt(i);
+            if (!inTag && Character.isWhitespace(c)) {
+                int next = skipWhitespace(trimmed, i);
+                if (next < trimmed.length() && trimmed.charAt(next) == '<' && normalized.length() > 0
+                        && normalized.charAt(normalized.length() - 1) == '>') {
+                    i = next;
+                    continue;
+                }
+                normalized.append(trimmed, i, next);
+                i = next;
+                continue;
+            }
+            if (inTag && quote == 0 && Character.isWhitespace(c)) {
+                int next = skipWhitespace(trimmed, i);
+                char following = next < trimmed.length() ? trimmed.charAt(next) : 0;
+                if (following != '>' && following != '/') {
+                    normalized.append(' ');
+                }
+                i = next;
+                continue;
+            }
+            if (c == '<' && !inTag) {
+                inTag = true;
+            } else if (inTag && quote == 0 && (c == '"' || c == '\'')) {
+                quote = c;
+            } else if (inTag && c == quote) {
+                quote = 0;
+            } else if (inTag && quote == 0 && c == '>') {
+                inTag = false;
+            }
+            normalized.append(c);
+            i++;
+        }
+        return normalized.toString();
+    }
+
+    private static int skipWhitespace(String text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    record TableCase(String name, Map<String, Object> variables) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+    }
+
+    // Context relative links outside of a web request, built the same way for both renderings
+    private static final class ContextPathLinkBuilder extends StandardLinkBuilder {
+
+        @Override
+        protected String computeContextPath(IExpressionContext context, String base, Map<String, Object> parameters) {
+            return "/app";
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package edu.miu.common.ui.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodesTheKeysItEncoded() {
+        List<String> keys = Arrays.asList("2024-01-02T03:04:05", null, "", "Zo\u00eb / \u65e5\u672c ?&=", "42");
+
+        KeysetCursor after = KeysetCursor.decode(KeysetCursor.after(keys).encode());
+        KeysetCursor before = KeysetCursor.decode(KeysetCursor.before(keys).encode());
+
+        assertThat(after.getDirection()).isEqualTo(KeysetCursor.Direction.AFTER);
+        assertThat(after.getKeys()).isEqualTo(keys);
+        assertThat(before.getDirection()).isEqualTo(KeysetCursor.Direction.BEFORE);
+        assertThat(before.getKeys()).isEqualTo(keys);
+        assertThat(before.getKey(4)).isEqualTo("42");
+    }
+
+    @Test
+    void decodesACursorWithoutKeys() {
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.after(List.of()).encode());
+
+        assertThat(cursor.getDirection()).isEqualTo(KeysetCursor.Direction.AFTER);
+        assertThat(cursor.getKeys()).isEmpty();
+    }
+
+    @Test
+    void encodesUrlSafeTokens() {
+        String token = KeysetCursor.after(List.of("???>>>", "a+b/c", "~~~")).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void emptyTokenIsTheFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void rejectsTokensItDidNotEncode() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid pagination cursor");
+        String unknownDirection = Base64.getUrlEncoder().withoutPadding().encodeToString("X\u001F1".getBytes());
+        assertThatThrownBy(() -> KeysetCursor.decode(unknownDirection))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid pagination cursor");
+    }
+
+    @Test
+    void keysAreACopyOfTheGivenList() {
+        List<String> keys = new ArrayList<>(List.of("a", "1"));
+        KeysetCursor cursor = KeysetCursor.after(keys);
+        keys.set(0, "b");
+
+        assertThat(cursor.getKeys()).containsExactly("a", "1");
+        assertThatThrownBy(() -> cursor.getKeys().add("2")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+}
@@ -0,0 +1,31 @@
+package edu.miu.common.ui.utils;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+/* CommonUtils of the tests, rows are maps keyed by the header names. Rows with more than 100 credits are highlighted
+    like the rows of the harness, so the row class is part of every rendering.
+ */
+public class TestCommonUtils extends CommonUtils {
+
+    // Outside of a Spring context the formatters are not injected
+    public TestCommonUtils() {
+        ReflectionTestUtils.setField(this, "valueFormatterRegistry", new ValueFormatterRegistry());
+    }
+
+    @Override
+    public String settingRowBackGroundColor(Object content) {
+        if (content instanceof Map<?, ?> row && row.get("credits") instanceof Integer credits && credits > 100) {
+            return "table-success";
+        }
+        return "";
+    }
+
+    @Override
+    public void initiateDefaults(Map<String, Object> attributes) {
+        attributes.put("headerDepartment", "Common UI Tests");
+        attributes.put("footerName", "Common UI Tests");
+    }
+
+}